@@ -0,0 +1,68 @@
+-- Layout storage benchmark: row size, write and read cost of layout_json stored as
+-- TEXT (the old column) and as JSONB (current), on synthetic designer layouts.
+-- Uses temporary tables only, so it can run against any database:
+--   psql -d mobile_designer_db -f benchmarks/layout_storage.sql
+-- Compression comes from TOAST: values are compressed once a row passes ~2 kB, using
+-- the column's COMPRESSION (pglz unless set, see database_schema.sql).
+
+-- 200 layouts each of 5, 15 and 40 components, shaped like the designer's output
+CREATE TEMP TABLE bench_source AS
+SELECT v.n AS components,
+       jsonb_build_object(
+           'components', (
+               SELECT jsonb_agg(jsonb_build_object(
+                   'id', 'comp_' || (1700000000000 + i) || '_' || substr(md5(r::text || ':' || i), 1, 9),
+                   'type', (ARRAY['button', 'textbox', 'textarea', 'checkbox', 'radio', 'image'])[1 + floor(random() * 6)::int],
+                   'x', floor(random() * 300)::int,
+                   'y', floor(random() * 560)::int,
+                   'width', 40 + floor(random() * 260)::int,
+                   'height', 20 + floor(random() * 100)::int,
+                   'text', (ARRAY['Submit', 'Cancel', 'Name', 'Email address', 'Remember me', 'Photo'])[1 + floor(random() * 6)::int],
+                   'placeholder', 'Enter text...',
+                   'textColor', '#000000',
+                   'checked', false,
+                   'imagePath', null,
+                   'zIndex', i))
+               FROM generate_series(0, v.n - 1) i),
+           'backgroundColor', '#ffffff',
+           'backgroundImage', null) AS layout
+FROM (VALUES (5), (15), (40)) v(n), generate_series(1, 200) r;
+-- the text the application sends, made up front so no run pays for producing it, and kept
+-- uncompressed (EXTERNAL) so the TEXT run cannot copy an already compressed value
+ALTER TABLE bench_source ADD COLUMN layout_text TEXT;
+ALTER TABLE bench_source ALTER COLUMN layout_text SET STORAGE EXTERNAL;
+UPDATE bench_source SET layout_text = layout::text;
+
+CREATE TEMP TABLE bench_text (id SERIAL PRIMARY KEY, components INTEGER, layout_json TEXT);
+CREATE TEMP TABLE bench_jsonb (id SERIAL PRIMARY KEY, components INTEGER, layout_json JSONB);
+
+-- Write cost: both start from the same text; parse (JSONB only) and compress
+EXPLAIN (ANALYZE, TIMING OFF, COSTS OFF)
+INSERT INTO bench_text (components, layout_json) SELECT components, layout_text FROM bench_source;
+EXPLAIN (ANALYZE, TIMING OFF, COSTS OFF)
+INSERT INTO bench_jsonb (components, layout_json) SELECT components, layout_text::jsonb FROM bench_source;
+
+-- Read cost: decompress and produce the text the application receives. md5() reads every
+-- byte; octet_length() of a compressed TEXT value would only look at its header
+EXPLAIN (ANALYZE, TIMING OFF, COSTS OFF)
+SELECT sum(length(md5(layout_json))) FROM bench_text;
+EXPLAIN (ANALYZE, TIMING OFF, COSTS OFF)
+SELECT sum(length(md5(layout_json::text))) FROM bench_jsonb;
+
+-- Row size: raw document against what is stored after TOAST compression
+SELECT 'text' AS storage, components,
+       round(avg(octet_length(layout_json))) AS raw_bytes,
+       round(avg(pg_column_size(layout_json))) AS stored_bytes
+FROM bench_text GROUP BY components
+UNION ALL
+SELECT 'jsonb', components,
+       round(avg(octet_length(layout_json::text))),
+       round(avg(pg_column_size(layout_json)))
+FROM bench_jsonb GROUP BY components
+ORDER BY components, storage;
+
+SELECT 'text' AS storage, pg_size_pretty(pg_total_relation_size('bench_text')) AS total
+UNION ALL
+SELECT 'jsonb', pg_size_pretty(pg_total_relation_size('bench_jsonb'));
+
+DROP TABLE bench_source, bench_text, bench_jsonb;
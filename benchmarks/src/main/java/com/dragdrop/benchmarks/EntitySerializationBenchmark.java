@@ -0,0 +1,119 @@
+package com.dragdrop.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.dragdrop.model.Application;
+import com.dragdrop.model.CursorPage;
+import com.dragdrop.model.Screen;
+
+// Request and response bodies through the message converter the controllers use
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class EntitySerializationBenchmark {
+
+    // screens in the legacy list endpoint and applications in a home page
+    private static final int LIST_SIZE = 20;
+
+    private MappingJackson2HttpMessageConverter converter;
+    private Application application;
+    private CursorPage<Application> applicationPage;
+
+    // Only the screen benchmarks depend on the layout size
+    @State(Scope.Benchmark)
+    public static class Screens {
+
+        @Param({"10", "100", "500"})
+        private int components;
+
+        private Screen screen;
+        private List<Screen> screens;
+        private byte[] saveRequest;
+
+        @Setup
+        public void setUp() throws Exception {
+            String layoutJson = Layouts.generate(components, false);
+            screens = new ArrayList<>();
+            for (long id = 1; id <= LIST_SIZE; id++) {
+                Screen item = new Screen(1L, "Screen " + id, layoutJson);
+                item.setId(id);
+                item.setVersion(3L);
+                item.setScreenImagePath("/uploads/assets/" + "0".repeat(64) + ".png");
+                screens.add(item);
+            }
+            screen = screens.get(0);
+            saveRequest = Fixtures.objectMapper().writeValueAsBytes(Map.of(
+                    "applicationId", 1, "name", "Screen 1", "layoutJson", layoutJson));
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        converter = new MappingJackson2HttpMessageConverter(Fixtures.objectMapper());
+        List<Application> applications = new ArrayList<>();
+        for (long id = 1; id <= LIST_SIZE; id++) {
+            Application item = new Application("Application " + id, 1L);
+            item.setId(id);
+            item.setVersion(5L);
+            applications.add(item);
+        }
+        application = applications.get(0);
+        applicationPage = new CursorPage<>(applications, "MjAyNi0xMC0xN1QxMDowMDowMHwyMA");
+    }
+
+    @Benchmark
+    public byte[] writeScreen(Screens state) throws Exception {
+        return write(state.screen);
+    }
+
+    @Benchmark
+    public byte[] writeScreenList(Screens state) throws Exception {
+        return write(state.screens);
+    }
+
+    // POST/PUT /api/screens bind their body to a Map
+    @Benchmark
+    public Object readSaveScreenRequest(Screens state) throws Exception {
+        MockHttpInputMessage input = new MockHttpInputMessage(state.saveRequest);
+        input.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return converter.read(Map.class, input);
+    }
+
+    @Benchmark
+    public byte[] writeApplication() throws Exception {
+        return write(application);
+    }
+
+    @Benchmark
+    public byte[] writeApplicationPage() throws Exception {
+        return write(applicationPage);
+    }
+
+    private byte[] write(Object body) throws Exception {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(body, MediaType.APPLICATION_JSON, output);
+        return output.getBodyAsBytes();
+    }
+}
@@ -0,0 +1,77 @@
+package com.dragdrop.benchmarks;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.dragdrop.repository.AssetRepository;
+import com.dragdrop.service.AssetStore;
+import com.dragdrop.service.InlineImageExtractor;
+import com.dragdrop.service.LayoutValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+// Wires the services under test by hand, with the defaults from application.properties,
+// so no Spring context or database is started
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    // The mapper Spring Boot configures for controllers
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    static LayoutValidator layoutValidator(ObjectMapper objectMapper) {
+        LayoutValidator validator = new LayoutValidator();
+        ReflectionTestUtils.setField(validator, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(validator, "maxBytes", 524288);
+        ReflectionTestUtils.setField(validator, "maxComponents", 500);
+        ReflectionTestUtils.setField(validator, "maxStringLength", 10000);
+        ReflectionTestUtils.setField(validator, "maxInlineImageLength", 14000000);
+        ReflectionTestUtils.setField(validator, "maxDepth", 16);
+        return validator;
+    }
+
+    // Real file handling; the repository answers as if every upload were new content
+    static AssetStore assetStore(Path uploadDir) {
+        AssetStore store = new AssetStore();
+        ReflectionTestUtils.setField(store, "uploadDir", uploadDir.toString());
+        ReflectionTestUtils.setField(store, "assetRepository", newAssetRepository());
+        return store;
+    }
+
+    static InlineImageExtractor inlineImageExtractor(AssetStore assetStore) {
+        InlineImageExtractor extractor = new InlineImageExtractor();
+        ReflectionTestUtils.setField(extractor, "assetStore", assetStore);
+        return extractor;
+    }
+
+    static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static AssetRepository newAssetRepository() {
+        return (AssetRepository) Proxy.newProxyInstance(AssetRepository.class.getClassLoader(),
+                new Class<?>[] {AssetRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Optional.empty();
+                    case "save" -> args[0];
+                    case "markUploaded" -> 0;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
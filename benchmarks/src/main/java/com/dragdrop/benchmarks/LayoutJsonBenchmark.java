@@ -0,0 +1,78 @@
+package com.dragdrop.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dragdrop.model.ScreenLayout;
+import com.dragdrop.service.LayoutValidator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Layout JSON as the services handle it: typed reads (thumbnails), trees (patches),
+// writing both back, and the validation every save goes through
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LayoutJsonBenchmark {
+
+    @Param({"10", "100", "500"})
+    private int components;
+
+    @Param({"false", "true"})
+    private boolean inlineBackground;
+
+    private ObjectMapper objectMapper;
+    private LayoutValidator layoutValidator;
+    private String layoutJson;
+    private ScreenLayout layout;
+    private JsonNode tree;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Fixtures.objectMapper();
+        layoutValidator = Fixtures.layoutValidator(objectMapper);
+        layoutJson = Layouts.generate(components, inlineBackground);
+        layout = ScreenLayout.read(objectMapper, layoutJson);
+        tree = objectMapper.readTree(layoutJson);
+    }
+
+    @Benchmark
+    public ScreenLayout readLayout() throws Exception {
+        return ScreenLayout.read(objectMapper, layoutJson);
+    }
+
+    @Benchmark
+    public JsonNode readTree() throws Exception {
+        return objectMapper.readTree(layoutJson);
+    }
+
+    @Benchmark
+    public String writeLayout() throws Exception {
+        return objectMapper.writeValueAsString(layout);
+    }
+
+    @Benchmark
+    public String writeTree() throws Exception {
+        return objectMapper.writeValueAsString(tree);
+    }
+
+    @Benchmark
+    public String validate() {
+        layoutValidator.validate(layoutJson);
+        return layoutJson;
+    }
+}
@@ -0,0 +1,63 @@
+package com.dragdrop.benchmarks;
+
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Random;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+// Layouts shaped like the designer's output. Seeded, so every run measures the same documents
+final class Layouts {
+
+    // size of the decoded inline background; a phone-sized PNG screenshot
+    static final int INLINE_BACKGROUND_BYTES = 300 * 1024;
+
+    private static final String[] TYPES = {"button", "textbox", "textarea", "checkbox", "radio", "image"};
+    private static final String[] TEXTS = {"Submit", "Cancel", "Name", "Email address", "Remember me", "Photo"};
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private Layouts() {
+    }
+
+    static String generate(int components, boolean inlineBackground) {
+        Random random = new Random(components * 31L + (inlineBackground ? 1 : 0));
+        ObjectNode layout = MAPPER.createObjectNode();
+        ArrayNode list = layout.putArray("components");
+        for (int i = 0; i < components; i++) {
+            String type = TYPES[random.nextInt(TYPES.length)];
+            ObjectNode component = list.addObject();
+            component.put("id", "comp_" + (1700000000000L + i) + "_" + Integer.toHexString(random.nextInt()));
+            component.put("type", type);
+            component.put("x", random.nextInt(300));
+            component.put("y", random.nextInt(560));
+            component.put("width", 40 + random.nextInt(260));
+            component.put("height", 20 + random.nextInt(100));
+            component.put("text", TEXTS[random.nextInt(TEXTS.length)]);
+            component.put("placeholder", "Enter text...");
+            component.put("textColor", "#000000");
+            component.put("checked", random.nextBoolean());
+            component.put("imagePath", type.equals("image") ? assetUrl(random) : null);
+            component.put("zIndex", i);
+        }
+        layout.put("backgroundColor", "#ffffff");
+        layout.put("backgroundImage", inlineBackground ? dataUri(random, INLINE_BACKGROUND_BYTES) : null);
+        return layout.toString();
+    }
+
+    static String dataUri(Random random, int bytes) {
+        return "data:image/png;base64," + Base64.getEncoder().encodeToString(randomBytes(random, bytes));
+    }
+
+    static byte[] randomBytes(Random random, int bytes) {
+        byte[] data = new byte[bytes];
+        random.nextBytes(data);
+        return data;
+    }
+
+    private static String assetUrl(Random random) {
+        return "/uploads/assets/" + HexFormat.of().formatHex(randomBytes(random, 32)) + ".png";
+    }
+}
@@ -0,0 +1,71 @@
+package com.dragdrop.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.dragdrop.model.Asset;
+import com.dragdrop.service.AssetStore;
+import com.dragdrop.service.InlineImageExtractor;
+
+// The upload write path: hashing and storing a file, and pulling an inline image out of a
+// layout on save. Writes go to a temporary directory; the database is left out
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class UploadBenchmark {
+
+    @Param({"65536", "1048576", "8388608"})
+    private int size;
+
+    private Path uploadDir;
+    private AssetStore assetStore;
+    private InlineImageExtractor inlineImageExtractor;
+    private byte[] file;
+    private String layoutJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        uploadDir = Files.createTempDirectory("upload-benchmark-");
+        assetStore = Fixtures.assetStore(uploadDir);
+        inlineImageExtractor = Fixtures.inlineImageExtractor(assetStore);
+
+        Random random = new Random(size);
+        file = Layouts.randomBytes(random, size);
+        layoutJson = "{\"components\":[],\"backgroundColor\":\"#ffffff\",\"backgroundImage\":\""
+                + Layouts.dataUri(random, size) + "\"}";
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        Fixtures.deleteRecursively(uploadDir);
+    }
+
+    @Benchmark
+    public Asset storeFile() throws Exception {
+        return assetStore.store(new ByteArrayInputStream(file), "png");
+    }
+
+    @Benchmark
+    public String extractInlineImage() {
+        return inlineImageExtractor.extract(layoutJson);
+    }
+}
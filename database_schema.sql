@@ -19,13 +19,16 @@ ALTER TABLE application
     ADD COLUMN IF NOT EXISTS created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP;
 ALTER TABLE application
     ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP;
+-- Optimistic locking / ETag version
+ALTER TABLE application
+    ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
 
 -- Screen table
 CREATE TABLE IF NOT EXISTS screen (
     id SERIAL PRIMARY KEY,
     application_id INTEGER NOT NULL,
     name VARCHAR(255) NOT NULL,
-    layout_json TEXT NOT NULL,
+    layout_json JSONB NOT NULL,
     screen_image_path VARCHAR(500),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (application_id) REFERENCES application(id) ON DELETE CASCADE
@@ -35,12 +38,64 @@ ALTER TABLE screen
     ADD COLUMN IF NOT EXISTS screen_image_path VARCHAR(500);
 ALTER TABLE screen
     ADD COLUMN IF NOT EXISTS created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE screen
+    ADD COLUMN IF NOT EXISTS layout_size INTEGER;
+
+ALTER TABLE screen
+    ADD COLUMN IF NOT EXISTS asset_refs TEXT;
+ALTER TABLE screen
+    ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Backfill layout sizes so screen lists never have to read layout_json
+UPDATE screen SET layout_size = octet_length(layout_json::text) WHERE layout_size IS NULL;
+
+-- Layouts are stored as JSONB so component queries run in the database; the GIN index
+-- serves containment searches such as "screens with an image component"
+ALTER TABLE screen ALTER COLUMN layout_json TYPE JSONB USING layout_json::jsonb;
+CREATE INDEX IF NOT EXISTS idx_screen_layout ON screen USING GIN (layout_json jsonb_path_ops);
+
+-- Layouts over ~2 kB are compressed by TOAST and only decompressed when layout_json is read.
+-- Servers built with lz4 (PostgreSQL 14+, --with-lz4) can trade a little size for faster
+-- reads and writes; existing rows keep their codec until rewritten.
+-- See benchmarks/layout_storage.sql to measure either choice on a deployment.
+-- ALTER TABLE screen ALTER COLUMN layout_json SET COMPRESSION lz4;
+
+-- Keyset pagination needs non-null sort keys
+UPDATE application SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL;
+UPDATE application SET updated_at = created_at WHERE updated_at IS NULL;
+UPDATE screen SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL;
+ALTER TABLE application ALTER COLUMN created_at SET NOT NULL;
+ALTER TABLE application ALTER COLUMN updated_at SET NOT NULL;
+ALTER TABLE screen ALTER COLUMN created_at SET NOT NULL;
 
 -- Create indexes for better performance
 CREATE INDEX IF NOT EXISTS idx_application_user_id ON application(user_id);
 CREATE INDEX IF NOT EXISTS idx_screen_application_id ON screen(application_id);
-CREATE INDEX IF NOT EXISTS idx_application_created_at ON application(created_at);
-CREATE INDEX IF NOT EXISTS idx_screen_created_at ON screen(created_at);
+
+-- Keyset pagination: (owner, sort timestamp, id) matches the WHERE and ORDER BY of each listing
+DROP INDEX IF EXISTS idx_application_created_at;
+DROP INDEX IF EXISTS idx_screen_created_at;
+CREATE INDEX IF NOT EXISTS idx_application_user_created ON application(user_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_application_user_updated ON application(user_id, updated_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_screen_application_created ON screen(application_id, created_at DESC, id DESC);
+
+-- Case-insensitive name uniqueness; also serves the name-available checks with one index probe.
+-- Existing rows whose names differ only by case must be renamed before these can be created.
+CREATE UNIQUE INDEX IF NOT EXISTS uq_application_user_name ON application(user_id, lower(name));
+CREATE UNIQUE INDEX IF NOT EXISTS uq_screen_application_name ON screen(application_id, lower(name));
+
+-- Content-addressed uploads (icons, background images), stored once per SHA-256
+CREATE TABLE IF NOT EXISTS asset (
+    hash VARCHAR(64) PRIMARY KEY,
+    extension VARCHAR(16) NOT NULL,
+    size_bytes BIGINT NOT NULL,
+    ref_count INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    last_uploaded_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Serves the orphan sweeper
+CREATE INDEX IF NOT EXISTS idx_asset_orphans ON asset(last_uploaded_at) WHERE ref_count = 0;
 
 -- Users table for authentication
 CREATE TABLE IF NOT EXISTS users (
@@ -56,3 +111,13 @@ CREATE TABLE IF NOT EXISTS users (
 INSERT INTO users (username, email, contact_number, password) VALUES 
 ('admin', 'admin@example.com', '+1234567890', '$2a$10$N.zmdr9k7uOCQb376NoUnuTJ8iAt6Z5EHsM8lE9lBOsl7iKTVEFDa')
 ON CONFLICT (username) DO NOTHING;
+
+-- Ids come from pooled sequences (allocationSize 50 on the entities) so Hibernate can batch
+-- inserts. Each nextval() is the top of a block of 50 that Hibernate hands out itself; a row
+-- inserted through the column default just uses up a block
+ALTER SEQUENCE application_id_seq INCREMENT BY 50;
+ALTER SEQUENCE screen_id_seq INCREMENT BY 50;
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+-- Screen copies are made in SQL and assume every nextval() is the top of a block;
+-- a never-used sequence would start at 1 instead
+SELECT setval('screen_id_seq', 50, false) WHERE NOT (SELECT is_called FROM screen_id_seq);
@@ -0,0 +1,36 @@
+package com.dragdrop.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // Application by id, for existence checks and the designer page
+    public static final String APPLICATIONS = "applications";
+
+    // First page of an application's screen summaries, by application id
+    public static final String SCREEN_SUMMARIES = "screenSummaries";
+
+    @Value("${app.cache.spec:maximumSize=10000,expireAfterWrite=10m,recordStats}")
+    private String spec;
+
+    // Evictions made inside a transaction wait for the commit, so a concurrent read cannot
+    // put the old row back in between
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager();
+        caffeine.setCacheSpecification(spec);
+        // fixed names, so the metrics binder sees every cache at startup
+        caffeine.setCacheNames(List.of(APPLICATIONS, SCREEN_SUMMARIES));
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
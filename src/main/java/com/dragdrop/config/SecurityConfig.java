@@ -2,11 +2,15 @@ package com.dragdrop.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 
 import jakarta.servlet.DispatcherType;
 
@@ -14,6 +18,22 @@ import jakarta.servlet.DispatcherType;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    // Actuator is served on its own port (management.server.port) for the metrics scraper;
+    // that port is meant to stay inside the deployment network, not behind the login form.
+    // Read-only: anything but GET would change state without anyone signing in
+    @Bean
+    @Order(1)
+    public SecurityFilterChain managementFilterChain(HttpSecurity http, Environment environment) throws Exception {
+        http
+            .securityMatcher(request -> request.getLocalPort() == managementPort(environment))
+            .authorizeHttpRequests(authz -> authz
+                .requestMatchers(AntPathRequestMatcher.antMatcher(HttpMethod.GET, "/**")).permitAll()
+                .anyRequest().denyAll()
+            );
+
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -44,6 +64,12 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // Matched by port, so unknown paths and error pages there stay out of the main chain;
+    // set by Boot once the management server is listening, random ports included
+    private static int managementPort(Environment environment) {
+        return environment.getProperty("local.management.port", Integer.class, -1);
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -0,0 +1,28 @@
+package com.dragdrop.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+
+import jakarta.annotation.PostConstruct;
+
+// Spring Boot quietly keeps the platform thread pools when virtual threads are asked for on
+// a runtime older than Java 21; say so instead of leaving a benchmark to find out
+@Configuration
+@ConditionalOnProperty("spring.threads.virtual.enabled")
+public class VirtualThreadsConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+
+    @PostConstruct
+    public void checkRuntime() {
+        int feature = Runtime.version().feature();
+        if (feature < 21) {
+            log.warn("spring.threads.virtual.enabled is set, but Java {} has no virtual threads; "
+                    + "requests run on the platform thread pool", feature);
+        } else {
+            log.info("Requests, async requests and scheduled jobs run on virtual threads");
+        }
+    }
+}
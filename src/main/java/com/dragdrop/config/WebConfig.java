@@ -1,19 +1,90 @@
 package com.dragdrop.config;
 
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    // file names rewritten by the content version strategy, e.g. designer-<md5>.js
+    private static final Pattern VERSIONED_PATH = Pattern.compile("-[0-9a-f]{32}\\.[^/]+$");
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
     @Value("${app.upload.dir:uploads}")
     private String uploadDir;
 
+    @Value("${app.layout.max-bytes:524288}")
+    private long maxLayoutBytes;
+
+    @Value("${app.layout.max-inline-bytes:16000000}")
+    private long maxInlineBytes;
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        // content-addressed blobs never change under the same name
+        registry.addResourceHandler("/uploads/assets/**")
+                .addResourceLocations("file:" + uploadDir + "/assets/")
+                .setCacheControl(IMMUTABLE);
+        // legacy uploads have unique random names and are never overwritten
         registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:" + uploadDir + "/");
+                .addResourceLocations("file:" + uploadDir + "/")
+                .setCacheControl(CacheControl.maxAge(7, TimeUnit.DAYS).cachePublic());
+
+        // JSPs link to content-hashed URLs; .br/.gz siblings produced by the build are served first
+        for (String dir : new String[] {"css", "js"}) {
+            registry.addResourceHandler("/" + dir + "/**")
+                    .addResourceLocations("classpath:/static/" + dir + "/")
+                    .resourceChain(true)
+                    .addResolver(new EncodedResourceResolver())
+                    .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+        }
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // only hashed URLs are immutable; plain ones must still revalidate
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                CacheControl cacheControl = VERSIONED_PATH.matcher(request.getRequestURI()).find()
+                        ? IMMUTABLE : CacheControl.noCache();
+                response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+                return true;
+            }
+        }).addPathPatterns("/css/**", "/js/**");
+    }
+
+    // lets <c:url> in the JSPs resolve /js/designer.js to its versioned URL
+    @Bean
+    public ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+        return new ResourceUrlEncodingFilter();
+    }
+
+    // Screen saves and patches carry a whole layout; the body is bounded by the layout budgets
+    // before Jackson reads it into a Map. Twice max-bytes because layoutJson arrives as an escaped string
+    @Bean
+    public FilterRegistrationBean<RequestSizeLimitFilter> screenRequestSizeLimitFilter() {
+        FilterRegistrationBean<RequestSizeLimitFilter> registration =
+                new FilterRegistrationBean<>(new RequestSizeLimitFilter(2 * maxLayoutBytes + maxInlineBytes));
+        registration.addUrlPatterns("/api/screens", "/api/screens/*");
+        return registration;
     }
 }
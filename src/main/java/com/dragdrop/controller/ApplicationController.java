@@ -1,9 +1,15 @@
 package com.dragdrop.controller;
 
-import java.util.List;
+import java.io.InputStream;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -12,11 +18,18 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.dragdrop.model.Application;
+import com.dragdrop.model.CursorPage;
+import com.dragdrop.service.ApplicationImportService;
 import com.dragdrop.service.ApplicationService;
+import com.dragdrop.service.ScreenExportService;
+import com.dragdrop.service.ScreenWriteBuffer;
 
 @RestController
 @RequestMapping("/api/applications")
@@ -26,6 +39,15 @@ public class ApplicationController {
     @Autowired
     private ApplicationService applicationService;
     
+    @Autowired
+    private ScreenWriteBuffer screenWriteBuffer;
+    
+    @Autowired
+    private ScreenExportService screenExportService;
+    
+    @Autowired
+    private ApplicationImportService applicationImportService;
+    
     @PostMapping
     public ResponseEntity<?> createApplication(@RequestBody Map<String, String> request) {
         try {
@@ -43,13 +65,46 @@ public class ApplicationController {
         }
     }
     
+    // The body is read as a stream: an export ZIP or NDJSON records, inserted in batches.
+    // Without applicationId a new application is created, named by the header record or ?name=
+    @PostMapping(value = "/import", consumes = {"application/zip", "application/x-ndjson"})
+    public ResponseEntity<?> importApplication(InputStream body,
+                                               @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                               @RequestParam(required = false) Long applicationId,
+                                               @RequestParam(required = false) String name) {
+        try {
+            Map<String, Object> result = contentType.startsWith("application/zip")
+                    ? applicationImportService.importZip(body, applicationId, name)
+                    : applicationImportService.importNdjson(body, applicationId, name);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Import failed: " + e.getMessage());
+        }
+    }
+    
     @GetMapping
-    public ResponseEntity<?> getAllApplications() {
+    public ResponseEntity<?> getAllApplications(@RequestParam(required = false) String prefix,
+                                                @RequestParam(required = false) String sort,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer size) {
         try {
-            List<Application> applications = applicationService.getAllApplicationsByUser();
+            CursorPage<Application> applications = applicationService.getApplicationPage(prefix, sort, cursor, size);
             return ResponseEntity.ok(applications);
         } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Failed to load applications: " + e.getMessage());
+            return ResponseEntity.badRequest().body("Failed to load applications: " + e.getMessage());
+        }
+    }
+    
+    // GET also answers HEAD: 200 when the name is free, 409 when it is taken
+    @GetMapping("/name-available")
+    public ResponseEntity<?> isNameAvailable(@RequestParam String name,
+                                             @RequestParam(required = false) Long excludeId) {
+        try {
+            boolean available = applicationService.isNameAvailable(name, excludeId);
+            return ResponseEntity.status(available ? HttpStatus.OK : HttpStatus.CONFLICT)
+                    .body(Map.of("available", available));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
     
@@ -57,15 +112,39 @@ public class ApplicationController {
     public ResponseEntity<?> getApplicationById(@PathVariable Long id) {
         try {
             Application application = applicationService.getApplicationById(id);
-            return ResponseEntity.ok(application);
+            // A matching If-None-Match is answered with 304 and no body
+            return ResponseEntity.ok()
+                    .eTag(VersionETag.weak(application.getVersion(), application.getUpdatedAt()))
+                    .cacheControl(CacheControl.noCache())
+                    .body(application);
         } catch (Exception e) {
             return ResponseEntity.status(404).body("Application not found: " + e.getMessage());
         }
     }
     
+    // One PNG and the raw layout per screen, streamed as the screens finish rendering
+    @GetMapping("/{id}/export.zip")
+    public ResponseEntity<StreamingResponseBody> exportApplication(@PathVariable Long id) {
+        try {
+            Application application = applicationService.getApplicationById(id);
+            screenWriteBuffer.flushApplication(id);
+            StreamingResponseBody body = out -> screenExportService.writeZip(application, out);
+            // fileName() keeps it ASCII, so no RFC 2047 encoding is needed
+            String fileName = ScreenExportService.fileName(application.getName()) + ".zip";
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("application/zip"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            ContentDisposition.attachment().filename(fileName).build().toString())
+                    .body(body);
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<?> updateApplication(@PathVariable Long id, 
-                                                      @RequestBody Map<String, String> request) {
+                                                      @RequestBody Map<String, String> request,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
             String name = request.get("name");
             String iconPath = request.get("iconPath");
@@ -74,7 +153,22 @@ public class ApplicationController {
                 return ResponseEntity.badRequest().body("Application name is required");
             }
             
-            Application application = applicationService.updateApplication(id, name, iconPath);
+            Application application = applicationService.updateApplication(id, name, iconPath,
+                    VersionETag.parseIfMatch(ifMatch));
+            return ResponseEntity.ok().eTag(VersionETag.of(application.getVersion())).body(application);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    // Copies the application with all of its screens; pending autosaves are written first
+    @PostMapping("/{id}/duplicate")
+    public ResponseEntity<?> duplicateApplication(@PathVariable Long id) {
+        try {
+            screenWriteBuffer.flushApplication(id);
+            Application application = applicationService.duplicateApplication(id);
             return ResponseEntity.ok(application);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -84,6 +178,7 @@ public class ApplicationController {
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteApplication(@PathVariable Long id) {
         try {
+            screenWriteBuffer.discardApplication(id);
             applicationService.deleteApplication(id);
             return ResponseEntity.ok().build();
         } catch (Exception e) {
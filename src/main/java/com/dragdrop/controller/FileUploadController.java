@@ -1,12 +1,9 @@
 package com.dragdrop.controller;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.UUID;
+import java.io.InputStream;
 
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -14,35 +11,58 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.dragdrop.model.Asset;
+import com.dragdrop.service.AssetStore;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 @RestController
 @RequestMapping("/api/upload")
 public class FileUploadController {
 
-    @Value("${app.upload.dir:uploads}")
-    private String uploadDir;
+    @Autowired
+    private AssetStore assetStore;
 
-    @PostMapping("/icon")
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // icons and screen background images share the same content-addressed store
+    @PostMapping({"/icon", "/image"})
     public ResponseEntity<String> uploadIcon(@RequestParam("file") MultipartFile file) {
-        try {
-            // Create upload directory if it doesn't exist
-            Path uploadPath = Paths.get(uploadDir);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
-
-            // Generate unique filename
-            String originalFilename = file.getOriginalFilename();
-            String fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            String filename = "icon_" + UUID.randomUUID().toString() + fileExtension;
-
-            Path filePath = uploadPath.resolve(filename);
-            Files.copy(file.getInputStream(), filePath);
-
-            return ResponseEntity.ok("/uploads/" + filename);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try (InputStream in = file.getInputStream()) {
+            // Identical files share one blob named after their hash
+            Asset asset = assetStore.store(in, getExtension(file.getOriginalFilename()));
+            recordUpload(sample, file, "success");
+
+            return ResponseEntity.ok(assetStore.getUrl(asset));
         } catch (IOException e) {
+            recordUpload(sample, file, "error");
             return ResponseEntity.badRequest().body("Failed to upload file: " + e.getMessage());
         }
     }
 
-    
-}
\ No newline at end of file
+    // Time spent hashing and writing the blob, apart from receiving the multipart request
+    private void recordUpload(Timer.Sample sample, MultipartFile file, String outcome) {
+        sample.stop(Timer.builder("upload.store")
+                .description("Time to hash and store an uploaded file")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        DistributionSummary.builder("upload.size")
+                .description("Size of uploaded files")
+                .baseUnit("bytes")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(file.getSize());
+    }
+
+    private String getExtension(String originalFilename) {
+        if (originalFilename == null || originalFilename.lastIndexOf(".") < 0) {
+            return null;
+        }
+        return originalFilename.substring(originalFilename.lastIndexOf(".") + 1);
+    }
+}
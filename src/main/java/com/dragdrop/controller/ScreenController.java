@@ -4,19 +4,31 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.dragdrop.model.ComponentCount;
+import com.dragdrop.model.CursorPage;
 import com.dragdrop.model.Screen;
+import com.dragdrop.model.ScreenSummary;
 import com.dragdrop.service.ScreenService;
+import com.dragdrop.service.ScreenWriteBuffer;
 
 @RestController
 @RequestMapping("/api/screens")
@@ -26,17 +38,22 @@ public class ScreenController {
     @Autowired
     private ScreenService screenService;
     
+    @Autowired
+    private ScreenWriteBuffer screenWriteBuffer;
+    
     @PostMapping
     public ResponseEntity<?> createScreen(@RequestBody Map<String, Object> request) {
         try {
             Long applicationId = Long.valueOf(request.get("applicationId").toString());
             String name = (String) request.get("name");
-            String layoutJson = (String) request.get("layoutJson");
             String screenImagePath = (String) request.get("screenImagePath");
             
-            if (name == null || name.trim().isEmpty() || layoutJson == null) {
+            if (name == null || name.trim().isEmpty() || request.get("layoutJson") == null) {
                 return ResponseEntity.badRequest().body("Screen name required");
             }
+            if (!(request.get("layoutJson") instanceof String layoutJson)) {
+                return ResponseEntity.badRequest().body("layoutJson must be a JSON document encoded as a string");
+            }
             
             Screen screen = screenService.createScreen(applicationId, name, layoutJson, screenImagePath);
             return ResponseEntity.ok(screen);
@@ -48,6 +65,7 @@ public class ScreenController {
     @GetMapping("/application/{applicationId}")
     public ResponseEntity<List<Screen>> getAllScreensByApplication(@PathVariable Long applicationId) {
         try {
+            screenWriteBuffer.flushApplication(applicationId);
             List<Screen> screens = screenService.getAllScreensByApplication(applicationId);
             return ResponseEntity.ok(screens);
         } catch (Exception e) {
@@ -55,40 +73,180 @@ public class ScreenController {
         }
     }
     
+    @GetMapping("/application/{applicationId}/summary")
+    public ResponseEntity<?> getScreenSummariesByApplication(@PathVariable Long applicationId,
+                                                             @RequestParam(required = false) String prefix,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) Integer size) {
+        try {
+            CursorPage<ScreenSummary> screens = screenService.getScreenSummaryPage(applicationId, prefix, cursor, size);
+            return ResponseEntity.ok(screens);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    // Screens with at least one component of the given type, e.g. ?componentType=image
+    @GetMapping("/application/{applicationId}/search")
+    public ResponseEntity<?> findScreensByComponentType(@PathVariable Long applicationId,
+                                                        @RequestParam String componentType) {
+        try {
+            screenWriteBuffer.flushApplication(applicationId);
+            List<ScreenSummary> screens = screenService.findScreensByComponentType(applicationId, componentType);
+            return ResponseEntity.ok(screens);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    @GetMapping("/application/{applicationId}/components")
+    public ResponseEntity<?> countApplicationComponents(@PathVariable Long applicationId) {
+        try {
+            screenWriteBuffer.flushApplication(applicationId);
+            List<ComponentCount> counts = screenService.countApplicationComponents(applicationId);
+            return ResponseEntity.ok(counts);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    // GET also answers HEAD: 200 when the name is free, 409 when it is taken
+    @GetMapping("/name-available")
+    public ResponseEntity<?> isNameAvailable(@RequestParam Long applicationId,
+                                             @RequestParam String name,
+                                             @RequestParam(required = false) Long excludeId) {
+        try {
+            boolean available = screenService.isNameAvailable(applicationId, name, excludeId);
+            return ResponseEntity.status(available ? HttpStatus.OK : HttpStatus.CONFLICT)
+                    .body(Map.of("available", available));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    // A matching If-None-Match is answered with 304 and no body
     @GetMapping("/{id}")
-    public ResponseEntity<Screen> getScreenById(@PathVariable Long id) {
+    public ResponseEntity<?> getScreenById(@PathVariable Long id) {
         try {
-            Screen screen = screenService.getScreenById(id);
-            return ResponseEntity.ok(screen);
+            screenWriteBuffer.flushForRead(id);
+            Screen screen = screenService.getScreenWithLayout(id);
+            return ResponseEntity.ok()
+                    .eTag(VersionETag.weak(screen.getVersion(), screen.getScreenImagePath()))
+                    .cacheControl(CacheControl.noCache())
+                    .body(screen);
+        } catch (OptimisticLockingFailureException e) {
+            // reported once; reloading then returns the stored screen
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
     }
     
+    // Component counts by type, e.g. [{"type":"button","count":3}]
+    @GetMapping("/{id}/components")
+    public ResponseEntity<?> countComponents(@PathVariable Long id) {
+        try {
+            screenWriteBuffer.flush(id);
+            List<ComponentCount> counts = screenService.countComponents(id);
+            return ResponseEntity.ok(counts);
+        } catch (Exception e) {
+            return ResponseEntity.status(404).body("Screen not found: " + e.getMessage());
+        }
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<?> updateScreen(@PathVariable Long id, 
-                                             @RequestBody Map<String, Object> request) {
+                                             @RequestBody Map<String, Object> request,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
             String name = (String) request.get("name");
-            String layoutJson = (String) request.get("layoutJson");
             String screenImagePath = (String) request.get("screenImagePath");
             
-            if (name == null || name.trim().isEmpty() || layoutJson == null) {
+            if (name == null || name.trim().isEmpty() || request.get("layoutJson") == null) {
                 return ResponseEntity.badRequest().body("Screen name required");
             }
+            if (!(request.get("layoutJson") instanceof String layoutJson)) {
+                return ResponseEntity.badRequest().body("layoutJson must be a JSON document encoded as a string");
+            }
             
-            Screen screen = screenService.updateScreen(id, name, layoutJson, screenImagePath);
-            return ResponseEntity.ok(screen);
+            screenWriteBuffer.flush(id);
+            Screen screen = screenService.updateScreen(id, name, layoutJson, screenImagePath,
+                    VersionETag.parseIfMatch(ifMatch));
+            return ResponseEntity.ok().eTag(VersionETag.of(screen.getVersion())).body(screen);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    // RFC 6902 patch against the version named in If-Match; answers with the new version only
+    @PatchMapping(value = "/{id}", consumes = {"application/json-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> patchScreen(@PathVariable Long id,
+                                         @RequestBody String patch,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).body("If-Match header required");
+        }
+        try {
+            screenWriteBuffer.flush(id);
+            Screen screen = screenService.patchScreenLayout(id, patch, VersionETag.parseIfMatch(ifMatch));
+            return ResponseEntity.ok()
+                    .eTag(VersionETag.of(screen.getVersion()))
+                    .body(Map.of("id", screen.getId(), "version", screen.getVersion(),
+                            "layoutSize", screen.getLayoutSize()));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
     
+    // Autosave: same patch format, but buffered and written behind. 202 carries the version
+    // the screen will have once flushed, which the client sends as If-Match next time
+    @PatchMapping(value = "/{id}/autosave", consumes = {"application/json-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> autosaveScreen(@PathVariable Long id,
+                                            @RequestBody String patch,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).body("If-Match header required");
+        }
+        try {
+            Long expectedVersion = VersionETag.parseIfMatch(ifMatch);
+            Long version = screenWriteBuffer.apply(id, patch, expectedVersion);
+            if (version != null) {
+                return ResponseEntity.accepted()
+                        .eTag(VersionETag.of(version))
+                        .body(Map.of("id", id, "version", version));
+            }
+            // buffer is full: write through
+            Screen screen = screenService.patchScreenLayout(id, patch, expectedVersion);
+            return ResponseEntity.ok()
+                    .eTag(VersionETag.of(screen.getVersion()))
+                    .body(Map.of("id", id, "version", screen.getVersion()));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
     
+    // Copies the screen server-side under a free "(copy n)" name; returns the copy's summary
+    @PostMapping("/{id}/duplicate")
+    public ResponseEntity<?> duplicateScreen(@PathVariable Long id) {
+        try {
+            screenWriteBuffer.flush(id);
+            ScreenSummary copy = screenService.duplicateScreen(id);
+            return ResponseEntity.ok(copy);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
     
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteScreen(@PathVariable Long id) {
         try {
+            screenWriteBuffer.discard(id);
             screenService.deleteScreen(id);
             return ResponseEntity.ok().build();
         } catch (Exception e) {
@@ -0,0 +1,37 @@
+package com.dragdrop.controller;
+
+import java.util.Objects;
+
+// Strong ETags derived from the entity @Version column
+final class VersionETag {
+
+    private VersionETag() {
+    }
+
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // For GET bodies that also carry fields changed without a version bump (touch timestamps,
+    // rendered previews). Weak, so it only answers If-None-Match; If-Match takes the version
+    static String weak(Long version, Object unversioned) {
+        return "W/\"" + version + "-" + Integer.toHexString(Objects.hashCode(unversioned)) + "\"";
+    }
+
+    // Returns the version an If-Match header asks for, null when there is no precondition
+    static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        // weak validators never satisfy If-Match, and neither does anything we didn't issue
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return -1L;
+        }
+        try {
+            return Long.valueOf(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+}
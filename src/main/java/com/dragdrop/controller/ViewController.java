@@ -1,16 +1,18 @@
 package com.dragdrop.controller;
 
-import java.util.List;
-
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import com.dragdrop.model.Application;
+import com.dragdrop.model.CursorPage;
 import com.dragdrop.service.ApplicationService;
 import com.dragdrop.service.ScreenService;
+import com.dragdrop.service.ScreenWriteBuffer;
 
 @Controller
 public class ViewController {
@@ -21,11 +23,19 @@ public class ViewController {
     @Autowired
     private ScreenService screenService;
     
+    @Autowired
+    private ScreenWriteBuffer screenWriteBuffer;
+    
     @GetMapping("/")
-    public String home(Model model) {
+    public String home(@RequestParam(required = false) String q,
+                       @RequestParam(required = false) String sort,
+                       @RequestParam(required = false) String cursor,
+                       Model model) {
+        model.addAttribute("sort", "created".equals(sort) ? "created" : "updated");
         try {
-            List<Application> applications = applicationService.getAllApplicationsByUser();
-            model.addAttribute("applications", applications);
+            CursorPage<Application> page = applicationService.getApplicationPage(q, sort, cursor, null);
+            model.addAttribute("applications", page.getItems());
+            model.addAttribute("nextCursor", page.getNextCursor());
         } catch (Exception e) {
             model.addAttribute("applications", new java.util.ArrayList<>());
             model.addAttribute("error", "Failed to load applications: " + e.getMessage());
@@ -37,7 +47,6 @@ public class ViewController {
     public String designer(@PathVariable Long applicationId, Model model) {
         try {
             model.addAttribute("application", applicationService.getApplicationById(applicationId));
-            model.addAttribute("screens", screenService.getAllScreensByApplication(applicationId));
             //add default/blankk screen for new design
             model.addAttribute("screen", new com.dragdrop.model.Screen());
         } catch (Exception e) {
@@ -52,7 +61,13 @@ public class ViewController {
                            Model model) {
         try {
             model.addAttribute("application", applicationService.getApplicationById(applicationId));
-            model.addAttribute("screen", screenService.getScreenById(screenId));
+            try {
+                screenWriteBuffer.flushForRead(screenId);
+            } catch (OptimisticLockingFailureException e) {
+                // the page still opens, on the stored layout, and says what was lost
+                model.addAttribute("autosaveError", true);
+            }
+            model.addAttribute("screen", screenService.getScreenWithLayout(screenId));
         } catch (Exception e) {
             return "redirect:/designer/" + applicationId;
         }
@@ -13,14 +13,18 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
 @Table(name = "application")
 public class Application {
     
+    // allocationSize must match the INCREMENT BY of application_id_seq
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "application_id_seq")
+    @SequenceGenerator(name = "application_id_seq", sequenceName = "application_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "name", nullable = false)
@@ -34,6 +38,11 @@ public class Application {
     
     @Column(name = "created_at")
     private LocalDateTime createdAt;
+    
+    // bumped on every update; doubles as the ETag and guards against lost updates
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
@@ -87,6 +96,14 @@ public class Application {
         this.userId = userId;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,101 @@
+package com.dragdrop.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = "asset")
+public class Asset {
+    
+    // SHA-256 of the content, hex encoded; the blob lives at uploads/assets/<hash>.<extension>
+    @Id
+    @Column(name = "hash", length = 64)
+    private String hash;
+    
+    @Column(name = "extension", nullable = false, length = 16)
+    private String extension;
+    
+    @Column(name = "size_bytes", nullable = false)
+    private Long sizeBytes;
+    
+    // number of applications (icon) and screens (layout) pointing at this asset
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    // refreshed on every upload of the same content so the sweeper leaves fresh blobs alone
+    @Column(name = "last_uploaded_at", nullable = false)
+    private LocalDateTime lastUploadedAt;
+    
+    public Asset() {
+        this.refCount = 0;
+        this.createdAt = LocalDateTime.now();
+        this.lastUploadedAt = this.createdAt;
+    }
+    
+    public Asset(String hash, String extension, Long sizeBytes) {
+        this();
+        this.hash = hash;
+        this.extension = extension;
+        this.sizeBytes = sizeBytes;
+    }
+    
+    public String getFilename() {
+        return hash + "." + extension;
+    }
+    
+    // Getters and Setters
+    public String getHash() {
+        return hash;
+    }
+    
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+    
+    public String getExtension() {
+        return extension;
+    }
+    
+    public void setExtension(String extension) {
+        this.extension = extension;
+    }
+    
+    public Long getSizeBytes() {
+        return sizeBytes;
+    }
+    
+    public void setSizeBytes(Long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+    
+    public Integer getRefCount() {
+        return refCount;
+    }
+    
+    public void setRefCount(Integer refCount) {
+        this.refCount = refCount;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getLastUploadedAt() {
+        return lastUploadedAt;
+    }
+    
+    public void setLastUploadedAt(LocalDateTime lastUploadedAt) {
+        this.lastUploadedAt = lastUploadedAt;
+    }
+}
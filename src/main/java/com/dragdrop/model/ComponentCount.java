@@ -0,0 +1,9 @@
+package com.dragdrop.model;
+
+// Number of layout components of one type, counted by the database
+public interface ComponentCount {
+
+    String getType();
+
+    Long getCount();
+}
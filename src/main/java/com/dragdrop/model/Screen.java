@@ -1,9 +1,14 @@
 package com.dragdrop.model;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import jakarta.persistence.Basic;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -12,14 +17,21 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
 @Table(name = "screen")
 public class Screen {
     
+    // INCREMENT BY of screen_id_seq; copies made in SQL take ids from the same blocks
+    public static final int ID_BLOCK_SIZE = 50;
+    
+    // pooled sequence: ids are reserved 50 at a time, so inserts can be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "screen_id_seq")
+    @SequenceGenerator(name = "screen_id_seq", sequenceName = "screen_id_seq", allocationSize = ID_BLOCK_SIZE)
     private Long id;
     
     @Column(name = "application_id", nullable = false)
@@ -28,15 +40,33 @@ public class Screen {
     @Column(name = "name", nullable = false)
     private String name;
     
-    @Column(name = "layout_json", nullable = false, columnDefinition = "TEXT")
+    // jsonb in the database; the text is passed through as is. Lazy (bytecode enhancement), so
+    // loading a screen for its name, owner or version does not read the layout
+    @Basic(fetch = FetchType.LAZY)
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "layout_json", nullable = false, columnDefinition = "jsonb")
     private String layoutJson;
     
     @Column(name = "screen_image_path")
     private String screenImagePath;
     
+    // byte size of layout_json, kept in sync so lists never read the layout itself
+    @Column(name = "layout_size")
+    private Integer layoutSize;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
+    // bumped on every update; doubles as the ETag and guards against lost updates
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
+    // hashes of the uploaded assets this screen references, comma separated
+    @Column(name = "asset_refs", columnDefinition = "TEXT")
+    @JsonIgnore
+    private String assetRefs;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "application_id", insertable = false, updatable = false)
     @JsonIgnore
@@ -51,7 +81,7 @@ public class Screen {
     public Screen(Long applicationId, String name, String layoutJson) {
         this.applicationId = applicationId;
         this.name = name;
-        this.layoutJson = layoutJson;
+        setLayoutJson(layoutJson);
         this.createdAt = LocalDateTime.now();
     }
     
@@ -86,6 +116,11 @@ public class Screen {
     
     public void setLayoutJson(String layoutJson) {
         this.layoutJson = layoutJson;
+        this.layoutSize = layoutJson != null ? layoutJson.getBytes(StandardCharsets.UTF_8).length : null;
+    }
+    
+    public Integer getLayoutSize() {
+        return layoutSize;
     }
     
     public String getScreenImagePath() {
@@ -96,6 +131,14 @@ public class Screen {
         this.screenImagePath = screenImagePath;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -104,6 +147,14 @@ public class Screen {
         this.createdAt = createdAt;
     }
     
+    public String getAssetRefs() {
+        return assetRefs;
+    }
+    
+    public void setAssetRefs(String assetRefs) {
+        this.assetRefs = assetRefs;
+    }
+    
     public Application getApplication() {
         return application;
     }
@@ -0,0 +1,34 @@
+package com.dragdrop.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Typed view of layout_json as the designer writes it; fields it does not know are ignored
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ScreenLayout(String backgroundColor, String backgroundImage, List<Component> components) {
+
+    public ScreenLayout {
+        components = components == null ? List.of() : components;
+    }
+
+    // Sizes are null when the layout leaves them out; readers pick their own defaults
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Component(String id, String type, double x, double y, Double width, Double height, String text,
+                            String placeholder, String textColor, String imagePath, boolean checked, int zIndex) {
+    }
+
+    // Older layouts are a bare array of components
+    public static ScreenLayout read(ObjectMapper objectMapper, String layoutJson) throws JsonProcessingException {
+        JsonNode tree = objectMapper.readTree(layoutJson);
+        if (tree.isArray()) {
+            Component[] components = objectMapper.treeToValue(tree, Component[].class);
+            return new ScreenLayout(null, null, Arrays.asList(components));
+        }
+        return objectMapper.treeToValue(tree, ScreenLayout.class);
+    }
+}
@@ -0,0 +1,19 @@
+package com.dragdrop.model;
+
+import java.time.LocalDateTime;
+
+// Lightweight view of a screen for lists - never carries layout_json
+public interface ScreenSummary {
+
+    Long getId();
+
+    String getName();
+
+    Long getApplicationId();
+
+    LocalDateTime getCreatedAt();
+
+    String getScreenImagePath();
+
+    Integer getLayoutSize();
+}
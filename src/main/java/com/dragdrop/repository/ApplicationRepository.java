@@ -1,9 +1,15 @@
 package com.dragdrop.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.dragdrop.model.Application;
 
@@ -12,5 +18,42 @@ public interface ApplicationRepository extends JpaRepository<Application, Long>
 
     List<Application> findByUserId(Long userId);
 
-    boolean existsByNameAndUserId(String name, Long userId);
+    // Keyset pages, newest first; each pair is served by the matching (user_id, <timestamp>, id) index.
+    // prefix is a lower-case LIKE pattern, "%" for no filter
+    @Query("select a from Application a where a.userId = :userId and lower(a.name) like :prefix escape '\\' "
+            + "order by a.updatedAt desc, a.id desc")
+    List<Application> findPageByUpdatedAt(@Param("userId") Long userId, @Param("prefix") String prefix, Pageable page);
+
+    @Query("select a from Application a where a.userId = :userId and lower(a.name) like :prefix escape '\\' "
+            + "and (a.updatedAt < :at or (a.updatedAt = :at and a.id < :id)) "
+            + "order by a.updatedAt desc, a.id desc")
+    List<Application> findPageByUpdatedAtBefore(@Param("userId") Long userId, @Param("prefix") String prefix,
+            @Param("at") LocalDateTime at, @Param("id") Long id, Pageable page);
+
+    @Query("select a from Application a where a.userId = :userId and lower(a.name) like :prefix escape '\\' "
+            + "order by a.createdAt desc, a.id desc")
+    List<Application> findPageByCreatedAt(@Param("userId") Long userId, @Param("prefix") String prefix, Pageable page);
+
+    @Query("select a from Application a where a.userId = :userId and lower(a.name) like :prefix escape '\\' "
+            + "and (a.createdAt < :at or (a.createdAt = :at and a.id < :id)) "
+            + "order by a.createdAt desc, a.id desc")
+    List<Application> findPageByCreatedAtBefore(@Param("userId") Long userId, @Param("prefix") String prefix,
+            @Param("at") LocalDateTime at, @Param("id") Long id, Pageable page);
+
+    // Lower-cased names sharing a prefix, for picking a free "(copy n)" name
+    @Query("select lower(a.name) from Application a where a.userId = :userId and lower(a.name) like :prefix escape '\\'")
+    List<String> findNamesByPrefix(@Param("userId") Long userId, @Param("prefix") String prefix);
+
+    // lower(name) matches the (user_id, lower(name)) unique index, so this is a single index probe
+    @Query("select count(a) > 0 from Application a where a.userId = :userId and lower(a.name) = lower(:name)")
+    boolean existsByNameAndUserId(@Param("name") String name, @Param("userId") Long userId);
+
+    @Query("select count(a) > 0 from Application a where a.userId = :userId and lower(a.name) = lower(:name) and a.id <> :id")
+    boolean existsByNameAndUserIdAndIdNot(@Param("name") String name, @Param("userId") Long userId, @Param("id") Long id);
+
+    // Leaves the version alone: screen edits are not a conflict for someone renaming the application
+    @Transactional
+    @Modifying
+    @Query("update Application a set a.updatedAt = :now where a.id = :id")
+    int touch(@Param("id") Long id, @Param("now") LocalDateTime now);
 }
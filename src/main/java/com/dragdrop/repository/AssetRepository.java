@@ -0,0 +1,42 @@
+package com.dragdrop.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dragdrop.model.Asset;
+
+@Repository
+public interface AssetRepository extends JpaRepository<Asset, String> {
+    
+    @Transactional
+    @Modifying
+    @Query("update Asset a set a.refCount = a.refCount + :count where a.hash in :hashes")
+    int retain(@Param("hashes") Collection<String> hashes, @Param("count") int count);
+    
+    @Transactional
+    @Modifying
+    @Query("update Asset a set a.refCount = case when a.refCount > :count then a.refCount - :count else 0 end "
+            + "where a.hash in :hashes")
+    int release(@Param("hashes") Collection<String> hashes, @Param("count") int count);
+    
+    @Transactional
+    @Modifying
+    @Query("update Asset a set a.lastUploadedAt = :now where a.hash = :hash")
+    int markUploaded(@Param("hash") String hash, @Param("now") LocalDateTime now);
+    
+    List<Asset> findTop100ByRefCountAndLastUploadedAtBefore(Integer refCount, LocalDateTime cutoff);
+    
+    // conditional so an asset that was re-uploaded or referenced since it was listed survives
+    @Transactional
+    @Modifying
+    @Query("delete from Asset a where a.hash = :hash and a.refCount = 0 and a.lastUploadedAt < :cutoff")
+    int deleteIfOrphaned(@Param("hash") String hash, @Param("cutoff") LocalDateTime cutoff);
+}
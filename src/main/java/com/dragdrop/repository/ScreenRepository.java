@@ -1,18 +1,157 @@
 package com.dragdrop.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.dragdrop.model.ComponentCount;
 import com.dragdrop.model.Screen;
+import com.dragdrop.model.ScreenSummary;
 
 @Repository
 public interface ScreenRepository extends JpaRepository<Screen, Long> {
     
     List<Screen> findByApplicationId(Long applicationId);
     
+    // The layout is a lazy attribute; these select it with the rest of the row for callers
+    // that need it, instead of one extra query per screen
+    @EntityGraph(attributePaths = "layoutJson")
     List<Screen> findByApplicationIdOrderByCreatedAtDesc(Long applicationId);
     
-    boolean existsByNameAndApplicationId(String name, Long applicationId);
+    @EntityGraph(attributePaths = "layoutJson")
+    @Query("select s from Screen s where s.id = :id")
+    Optional<Screen> findWithLayoutById(@Param("id") Long id);
+    
+    @Query(value = "select id from screen where cast(layout_json as text) like '%\"data:%;base64,%' order by id", nativeQuery = true)
+    List<Long> findIdsWithInlineData();
+    
+    @Query("select s.id from Screen s where s.applicationId = :applicationId order by s.createdAt, s.id")
+    List<Long> findIdsByApplicationId(@Param("applicationId") Long applicationId);
+    
+    // [id, name] pairs in the same order, for the export manifest
+    @Query("select s.id, s.name from Screen s where s.applicationId = :applicationId order by s.createdAt, s.id")
+    List<Object[]> findIdsAndNamesByApplicationId(@Param("applicationId") Long applicationId);
+    
+    @Query("select s.assetRefs from Screen s where s.id = :id")
+    String findAssetRefsById(@Param("id") Long id);
+    
+    @Query("select s.assetRefs from Screen s where s.applicationId = :applicationId and s.assetRefs is not null")
+    List<String> findAssetRefsByApplicationId(@Param("applicationId") Long applicationId);
+    
+    // Keyset pages of summaries, newest first, served by the (application_id, created_at, id) index
+    @Query("select s.id as id, s.name as name, s.applicationId as applicationId, s.createdAt as createdAt, "
+            + "s.screenImagePath as screenImagePath, s.layoutSize as layoutSize from Screen s "
+            + "where s.applicationId = :applicationId and lower(s.name) like :prefix escape '\\' "
+            + "order by s.createdAt desc, s.id desc")
+    List<ScreenSummary> findSummaryPage(@Param("applicationId") Long applicationId, @Param("prefix") String prefix,
+            Pageable page);
+    
+    @Query("select s.id as id, s.name as name, s.applicationId as applicationId, s.createdAt as createdAt, "
+            + "s.screenImagePath as screenImagePath, s.layoutSize as layoutSize from Screen s "
+            + "where s.applicationId = :applicationId and lower(s.name) like :prefix escape '\\' "
+            + "and (s.createdAt < :at or (s.createdAt = :at and s.id < :id)) "
+            + "order by s.createdAt desc, s.id desc")
+    List<ScreenSummary> findSummaryPageBefore(@Param("applicationId") Long applicationId, @Param("prefix") String prefix,
+            @Param("at") LocalDateTime at, @Param("id") Long id, Pageable page);
+    
+    @Query("select s.id as id, s.name as name, s.applicationId as applicationId, s.createdAt as createdAt, "
+            + "s.screenImagePath as screenImagePath, s.layoutSize as layoutSize from Screen s where s.id = :id")
+    Optional<ScreenSummary> findSummaryById(@Param("id") Long id);
+    
+    // Component queries run on the jsonb layout in the database; containment (@>) uses the GIN index.
+    // Layouts are {"components": [...]} or, in older screens, a bare array of components
+    @Query(value = "select s.id as \"id\", s.name as \"name\", s.application_id as \"applicationId\", "
+            + "s.created_at as \"createdAt\", s.screen_image_path as \"screenImagePath\", s.layout_size as \"layoutSize\" "
+            + "from screen s where s.application_id = :applicationId "
+            + "and (s.layout_json @> jsonb_build_object('components', jsonb_build_array(jsonb_build_object('type', cast(:type as text)))) "
+            + "or s.layout_json @> jsonb_build_array(jsonb_build_object('type', cast(:type as text)))) "
+            + "order by s.created_at desc, s.id desc", nativeQuery = true)
+    List<ScreenSummary> findSummariesByComponentType(@Param("applicationId") Long applicationId, @Param("type") String type);
+    
+    @Query(value = "select c ->> 'type' as \"type\", count(*) as \"count\" from screen s "
+            + "cross join lateral jsonb_array_elements(case when jsonb_typeof(s.layout_json) = 'array' then s.layout_json "
+            + "when jsonb_typeof(s.layout_json -> 'components') = 'array' then s.layout_json -> 'components' "
+            + "else cast('[]' as jsonb) end) c "
+            + "where s.id = :id group by 1 order by 2 desc, 1", nativeQuery = true)
+    List<ComponentCount> countComponentsByType(@Param("id") Long id);
+    
+    @Query(value = "select c ->> 'type' as \"type\", count(*) as \"count\" from screen s "
+            + "cross join lateral jsonb_array_elements(case when jsonb_typeof(s.layout_json) = 'array' then s.layout_json "
+            + "when jsonb_typeof(s.layout_json -> 'components') = 'array' then s.layout_json -> 'components' "
+            + "else cast('[]' as jsonb) end) c "
+            + "where s.application_id = :applicationId group by 1 order by 2 desc, 1", nativeQuery = true)
+    List<ComponentCount> countComponentsByTypeInApplication(@Param("applicationId") Long applicationId);
+    
+    // Lower-cased names sharing a prefix, for picking a free "(copy n)" name
+    @Query("select lower(s.name) from Screen s where s.applicationId = :applicationId and lower(s.name) like :prefix escape '\\'")
+    List<String> findNamesByPrefix(@Param("applicationId") Long applicationId, @Param("prefix") String prefix);
+    
+    // lower(name) matches the (application_id, lower(name)) unique index, so this is a single index probe
+    @Query("select count(s) > 0 from Screen s where s.applicationId = :applicationId and lower(s.name) = lower(:name)")
+    boolean existsByNameAndApplicationId(@Param("name") String name, @Param("applicationId") Long applicationId);
+    
+    @Query("select count(s) > 0 from Screen s where s.applicationId = :applicationId and lower(s.name) = lower(:name) and s.id <> :id")
+    boolean existsByNameAndApplicationIdAndIdNot(@Param("name") String name, @Param("applicationId") Long applicationId, @Param("id") Long id);
+    
+    // Set-based form of the check above for bulk imports; names must already be lower-cased
+    @Query("select s.name from Screen s where s.applicationId = :applicationId and lower(s.name) in :names")
+    List<String> findExistingNames(@Param("applicationId") Long applicationId, @Param("names") Collection<String> names);
+
+    // Not read-only even when called on its own: nextval() writes
+    @Transactional
+    @Query(value = "select nextval('screen_id_seq')", nativeQuery = true)
+    long nextIdBlock();
+    
+    // Copies run inside the database so layouts never travel to the application and back.
+    // The copy shares the source's assets and preview; callers retain its asset_refs
+    @Transactional
+    @Modifying
+    @Query(value = "insert into screen (id, application_id, name, layout_json, screen_image_path, layout_size, "
+            + "asset_refs, created_at, version) "
+            + "select :newId, s.application_id, :name, s.layout_json, s.screen_image_path, s.layout_size, "
+            + "s.asset_refs, :now, 0 from screen s where s.id = :id", nativeQuery = true)
+    int copyScreen(@Param("id") Long id, @Param("newId") Long newId, @Param("name") String name,
+            @Param("now") LocalDateTime now);
+    
+    // Copies every screen of one application into another in a single statement. Ids are taken
+    // a block per nextval(), the way Hibernate's pooled optimizer does, and follow the source order
+    @Transactional
+    @Modifying
+    @Query(value = "with source as ("
+            + "  select s.*, row_number() over (order by s.created_at, s.id) - 1 as n "
+            + "  from screen s where s.application_id = :sourceId), "
+            + "blocks as ("
+            + "  select nextval('screen_id_seq') as hi, row_number() over () - 1 as block "
+            + "  from generate_series(1, (select (count(*) + :blockSize - 1) / :blockSize from source))) "
+            + "insert into screen (id, application_id, name, layout_json, screen_image_path, layout_size, "
+            + "asset_refs, created_at, version) "
+            + "select b.hi - :blockSize + 1 + src.n % :blockSize, :targetId, src.name, src.layout_json, "
+            + "src.screen_image_path, src.layout_size, src.asset_refs, :now, 0 "
+            + "from source src join blocks b on b.block = src.n / :blockSize", nativeQuery = true)
+    int copyScreens(@Param("sourceId") Long sourceId, @Param("targetId") Long targetId,
+            @Param("blockSize") int blockSize, @Param("now") LocalDateTime now);
+    
+    @Transactional
+    @Modifying
+    @Query("update Screen s set s.version = s.version + 1 where s.id = :id")
+    int incrementVersion(@Param("id") Long id);
+    
+    // A new preview leaves the version alone: the layout the client holds has not changed.
+    // GET /api/screens/{id} folds the path into its weak ETag instead
+    @Transactional
+    @Modifying
+    @Query("update Screen s set s.screenImagePath = :path, s.assetRefs = :refs "
+            + "where s.id = :id and s.version = :version and coalesce(s.screenImagePath, '') = :previousPath")
+    int updateThumbnail(@Param("id") Long id, @Param("version") Long version, @Param("previousPath") String previousPath,
+            @Param("path") String path, @Param("refs") String refs);
 }
@@ -0,0 +1,407 @@
+package com.dragdrop.service;
+
+import java.io.FilterInputStream;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StreamUtils;
+
+import com.dragdrop.model.Application;
+import com.dragdrop.model.Asset;
+import com.dragdrop.model.Screen;
+import com.dragdrop.repository.ScreenRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+// Bulk import of an application and its screens from an NDJSON stream or an export ZIP.
+// Records are parsed one at a time and inserted in JDBC batches, so memory stays flat
+// however large the upload is. The whole import is one transaction: all or nothing.
+@Service
+public class ApplicationImportService {
+
+    public static final String MANIFEST_ENTRY = "application.json";
+
+    public static final String ASSET_DIR = "assets/";
+
+    // "<id>-<name>.json" as written by the export; the id prefix is optional
+    private static final Pattern SCREEN_ENTRY = Pattern.compile("(?:.*/)?(?:\\d+-)?(.+)\\.json");
+
+    // "assets/<sha-256>.<ext>", the asset store's own file names
+    private static final Pattern ASSET_ENTRY = Pattern.compile("(?:.*/)?" + ASSET_DIR + "([0-9a-f]{64})\\.([a-z0-9]+)");
+
+    @Autowired
+    private ApplicationService applicationService;
+
+    @Autowired
+    private ScreenRepository screenRepository;
+
+    @Autowired
+    private AssetStore assetStore;
+
+    @Autowired
+    private InlineImageExtractor inlineImageExtractor;
+
+    @Autowired
+    private ScreenThumbnailService screenThumbnailService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LayoutValidator layoutValidator;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // one chunk per JDBC batch
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int chunkSize;
+
+    // One JSON object per line: an optional {"type":"application","name":...,"iconPath":...}
+    // header first, then {"type":"screen","name":...,"layout":{...}} records
+    @Transactional
+    public Map<String, Object> importNdjson(InputStream in, Long applicationId, String name) throws IOException {
+        Import target = new Import(applicationId, name);
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new RuntimeException("Expected a JSON object per line at " + parser.currentLocation());
+                }
+                Record record = readRecord(parser);
+                if ("application".equals(record.type)) {
+                    target.header(record.name, record.iconPath);
+                } else if (record.type == null || "screen".equals(record.type)) {
+                    target.add(record.name, record.layoutJson, record.screenImagePath);
+                } else {
+                    throw new RuntimeException("Unknown record type: " + record.type);
+                }
+            }
+        }
+        return target.finish();
+    }
+
+    // The layout of "<id>-<name>.json" entries becomes a screen named as the manifest
+    // (application.json) lists it, or <name> for archives without one. Bundled assets are put in
+    // the asset store under the same hash, so the URLs in the layouts keep working.
+    // Rendered PNGs and anything else in the archive are skipped.
+    @Transactional
+    public Map<String, Object> importZip(InputStream in, Long applicationId, String name) throws IOException {
+        Import target = new Import(applicationId, name);
+        Map<String, String> screenNames = new HashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(in, StandardCharsets.UTF_8)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                if (entry.getName().equals(MANIFEST_ENTRY) || entry.getName().endsWith("/" + MANIFEST_ENTRY)) {
+                    Record record;
+                    try (JsonParser parser = objectMapper.getFactory().createParser(limited(zip, entry))) {
+                        record = readRecord(parser);
+                    }
+                    screenNames.putAll(record.screenNames);
+                    target.header(record.name, record.iconPath);
+                    continue;
+                }
+                Matcher asset = ASSET_ENTRY.matcher(entry.getName());
+                if (asset.matches()) {
+                    storeAsset(zip, asset.group(1), asset.group(2));
+                    continue;
+                }
+                Matcher matcher = SCREEN_ENTRY.matcher(entry.getName());
+                if (matcher.matches()) {
+                    String file = entry.getName().substring(entry.getName().lastIndexOf('/') + 1);
+                    target.add(screenNames.getOrDefault(file, matcher.group(1)),
+                            new String(limited(zip, entry).readAllBytes(), StandardCharsets.UTF_8), null);
+                }
+            }
+        }
+        return target.finish();
+    }
+
+    // The entry's content as a stream that leaves the archive open and refuses to go past what a
+    // layout may hold, whatever the entry claims, so a highly compressed entry cannot fill the heap
+    private InputStream limited(ZipInputStream zip, ZipEntry entry) {
+        long limit = layoutValidator.maxDocumentBytes();
+        return new FilterInputStream(zip) {
+            private long count;
+
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    count(1);
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int n = super.read(buffer, offset, length);
+                if (n > 0) {
+                    count(n);
+                }
+                return n;
+            }
+
+            private void count(int n) {
+                count += n;
+                if (count > limit) {
+                    throw new RuntimeException("Entry " + entry.getName() + " is larger than " + limit + " bytes");
+                }
+            }
+
+            @Override
+            public void close() {
+                // the next entry is read from the same stream
+            }
+        };
+    }
+
+    // Stored unreferenced; the screens and icon that point at it retain it as they are imported
+    private void storeAsset(ZipInputStream zip, String hash, String extension) throws IOException {
+        Asset asset = assetStore.store(StreamUtils.nonClosing(zip), extension);
+        if (!asset.getHash().equals(hash)) {
+            throw new RuntimeException("Asset " + hash + " in the archive does not match its content");
+        }
+    }
+
+    // Streams one object's fields; a nested layout is copied token by token without building a tree
+    private Record readRecord(JsonParser parser) throws IOException {
+        if (parser.currentToken() == null && parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new RuntimeException("Expected a JSON object");
+        }
+        Record record = new Record();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "type":
+                    record.type = parser.getValueAsString();
+                    break;
+                case "name":
+                    record.name = parser.getValueAsString();
+                    break;
+                case "iconPath":
+                    record.iconPath = parser.getValueAsString();
+                    break;
+                case "screenImagePath":
+                    record.screenImagePath = parser.getValueAsString();
+                    break;
+                case "screens":
+                    readScreenNames(parser, record.screenNames);
+                    break;
+                case "layoutJson":
+                    record.layoutJson = parser.getValueAsString();
+                    break;
+                case "layout":
+                    if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                        StringWriter layout = new StringWriter();
+                        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(limited(layout))) {
+                            generator.copyCurrentStructure(parser);
+                        }
+                        record.layoutJson = layout.toString();
+                    } else {
+                        throw new RuntimeException("Field 'layout' must be an object or array");
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        return record;
+    }
+
+    // An NDJSON line is not bounded by the request, so the copied layout is
+    private FilterWriter limited(StringWriter layout) {
+        long limit = layoutValidator.maxDocumentBytes();
+        return new FilterWriter(layout) {
+            @Override
+            public void write(int c) throws IOException {
+                super.write(c);
+                check();
+            }
+
+            @Override
+            public void write(char[] buffer, int offset, int length) throws IOException {
+                super.write(buffer, offset, length);
+                check();
+            }
+
+            @Override
+            public void write(String text, int offset, int length) throws IOException {
+                super.write(text, offset, length);
+                check();
+            }
+
+            private void check() {
+                if (layout.getBuffer().length() > limit) {
+                    throw new RuntimeException("A layout is larger than " + limit + " characters");
+                }
+            }
+        };
+    }
+
+    // [{"file":"12-Sign_in.json","name":"Sign in?"}, ...]
+    private void readScreenNames(JsonParser parser, Map<String, String> names) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new RuntimeException("Field 'screens' must be an array");
+        }
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String file = null;
+            String name = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("file".equals(field)) {
+                    file = parser.getValueAsString();
+                } else if ("name".equals(field)) {
+                    name = parser.getValueAsString();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (file != null && name != null) {
+                names.put(file, name);
+            }
+        }
+    }
+
+    private static class Record {
+        private String type;
+        private String name;
+        private String iconPath;
+        private String screenImagePath;
+        private String layoutJson;
+        private final Map<String, String> screenNames = new HashMap<>();
+    }
+
+    // State of one import: the target application, names seen so far and the pending chunk
+    private class Import {
+
+        private final String nameOverride;
+        private Long applicationId;
+        private boolean created;
+        private final Set<String> seenNames = new HashSet<>();
+        private final List<Screen> chunk = new ArrayList<>();
+        private final List<String> chunkRefs = new ArrayList<>();
+        private final List<Long> imported = new ArrayList<>();
+
+        Import(Long applicationId, String nameOverride) {
+            this.applicationId = applicationId;
+            this.nameOverride = nameOverride;
+            if (applicationId != null) {
+                // touching the parent first also checks that it exists; rolled back if the import fails
+                applicationService.touchUpdatedAt(applicationId);
+            }
+        }
+
+        void header(String name, String iconPath) {
+            if (applicationId != null) {
+                // importing into an existing application: its name and icon stay
+                return;
+            }
+            createApplication(nameOverride != null ? nameOverride : name,
+                    iconPath == null || iconPath.isEmpty() ? null : iconPath);
+        }
+
+        void add(String name, String layoutJson, String screenImagePath) {
+            if (applicationId == null) {
+                createApplication(nameOverride, null);
+            }
+            if (name == null || name.trim().isEmpty()) {
+                throw new RuntimeException("Screen name is required");
+            }
+            if (layoutJson == null) {
+                throw new RuntimeException("Screen '" + name + "' has no layout");
+            }
+            if (!seenNames.add(name.toLowerCase(Locale.ROOT))) {
+                throw new RuntimeException("Screen with name '" + name + "' appears more than once in the import");
+            }
+
+            try {
+                layoutValidator.validate(layoutJson);
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Screen '" + name + "': " + e.getMessage());
+            }
+            layoutJson = inlineImageExtractor.extract(layoutJson);
+            Screen screen = new Screen(applicationId, name, layoutJson);
+            screen.setScreenImagePath(screenImagePath);
+            Set<String> refs = assetStore.findReferences(layoutJson, screenImagePath);
+            screen.setAssetRefs(AssetStore.joinReferences(refs));
+            chunkRefs.addAll(refs);
+            chunk.add(screen);
+
+            if (chunk.size() >= chunkSize) {
+                flushChunk();
+            }
+        }
+
+        Map<String, Object> finish() {
+            if (applicationId == null) {
+                // an empty import still creates the application it names
+                createApplication(nameOverride, null);
+            }
+            flushChunk();
+            imported.forEach(screenThumbnailService::requestThumbnail);
+            return Map.of("applicationId", applicationId, "screens", imported.size());
+        }
+
+        private void createApplication(String name, String iconPath) {
+            if (name == null || name.trim().isEmpty()) {
+                throw new RuntimeException("Application name is required");
+            }
+            Application application = applicationService.createApplication(name, iconPath);
+            applicationId = application.getId();
+            created = true;
+        }
+
+        // One query checks the whole chunk against stored names, then one batch inserts it
+        private void flushChunk() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            if (!created) {
+                List<String> names = chunk.stream().map(s -> s.getName().toLowerCase(Locale.ROOT)).toList();
+                List<String> taken = screenRepository.findExistingNames(applicationId, names);
+                if (!taken.isEmpty()) {
+                    throw new RuntimeException("Screens already exist in this application: " + String.join(", ", taken));
+                }
+            }
+
+            screenRepository.saveAll(chunk);
+            assetStore.retain(chunkRefs);
+            entityManager.flush();
+            chunk.forEach(screen -> imported.add(screen.getId()));
+            // drop the inserted screens from the persistence context so it does not grow with the import
+            entityManager.clear();
+            chunk.clear();
+            chunkRefs.clear();
+        }
+    }
+}
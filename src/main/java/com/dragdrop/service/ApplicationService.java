@@ -1,15 +1,25 @@
 package com.dragdrop.service;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.dragdrop.config.CacheConfig;
 import com.dragdrop.model.Application;
+import com.dragdrop.model.CursorPage;
+import com.dragdrop.model.Screen;
 import com.dragdrop.model.User;
 import com.dragdrop.repository.ApplicationRepository;
+import com.dragdrop.repository.ScreenRepository;
 import com.dragdrop.repository.UserRepository;
 
 @Service
@@ -21,9 +31,19 @@ public class ApplicationService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private ScreenRepository screenRepository;
+    
+    @Autowired
+    private AssetStore assetStore;
+    
     private Long getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.isAuthenticated()) {
+            if (authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+                return principal.getUserId();
+            }
+            // fallback for principals that don't carry the id
             String username = authentication.getName();
             User user = userRepository.findByUsername(username).orElse(null);
             return user != null ? user.getId() : null;
@@ -31,6 +51,7 @@ public class ApplicationService {
         return null;
     }
     
+    @Transactional
     public Application createApplication(String name, String iconPath) {
         Long userId = getCurrentUserId();
         if (userId == null) {
@@ -45,24 +66,63 @@ public class ApplicationService {
         application.setIconPath(iconPath);
         application.setUpdatedAt(java.time.LocalDateTime.now());
         
-        return applicationRepository.save(application);
+        Application saved = applicationRepository.save(application);
+        assetStore.retain(assetStore.findReferences(iconPath));
+        return saved;
     }
     
-    public List<Application> getAllApplicationsByUser() {
+    // Keyset-paginated listing; sort is "updated" (default) or "created", newest first
+    public CursorPage<Application> getApplicationPage(String prefix, String sort, String cursor, Integer size) {
         Long userId = getCurrentUserId();
         if (userId == null) {
-            return new java.util.ArrayList<>();
+            return new CursorPage<>(new ArrayList<>(), null);
         }
-        return applicationRepository.findByUserId(userId);
+        
+        String pattern = KeysetCursor.prefixPattern(prefix);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable fetch = KeysetCursor.fetchSize(size);
+        
+        if ("created".equals(sort)) {
+            List<Application> rows = after == null
+                    ? applicationRepository.findPageByCreatedAt(userId, pattern, fetch)
+                    : applicationRepository.findPageByCreatedAtBefore(userId, pattern, after.getTimestamp(), after.getId(), fetch);
+            return KeysetCursor.toPage(rows, fetch, app -> new KeysetCursor(app.getCreatedAt(), app.getId()));
+        }
+        List<Application> rows = after == null
+                ? applicationRepository.findPageByUpdatedAt(userId, pattern, fetch)
+                : applicationRepository.findPageByUpdatedAtBefore(userId, pattern, after.getTimestamp(), after.getId(), fetch);
+        return KeysetCursor.toPage(rows, fetch, app -> new KeysetCursor(app.getUpdatedAt(), app.getId()));
     }
     
+    public boolean isNameAvailable(String name, Long excludeId) {
+        Long userId = getCurrentUserId();
+        if (userId == null) {
+            throw new RuntimeException("User not authenticated");
+        }
+        
+        if (excludeId != null) {
+            return !applicationRepository.existsByNameAndUserIdAndIdNot(name, userId, excludeId);
+        }
+        return !applicationRepository.existsByNameAndUserId(name, userId);
+    }
+    
+    // Cached: screen calls use it as the existence check. The instance is shared, so callers
+    // must not modify it; writes load the row themselves
+    @Cacheable(cacheNames = CacheConfig.APPLICATIONS, key = "#id")
     public Application getApplicationById(Long id) {
+        return loadApplication(id);
+    }
+    
+    private Application loadApplication(Long id) {
         return applicationRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Application not found with ID: " + id));
     }
     
-    public Application updateApplication(Long id, String name, String iconPath) {
-        Application application = getApplicationById(id);
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.APPLICATIONS, key = "#id")
+    public Application updateApplication(Long id, String name, String iconPath, Long expectedVersion) {
+        Application application = loadApplication(id);
+        checkVersion(application.getVersion(), expectedVersion);
         Long currentUserId = getCurrentUserId();
         
         // Check if the user whoIS CURRENTLY LOGGED INowns this application
@@ -70,14 +130,15 @@ public class ApplicationService {
             throw new RuntimeException("Access denied: You can only edit your own applications");
         }
         
-        if (!application.getName().equals(name) && 
-            applicationRepository.existsByNameAndUserId(name, currentUserId)) {
+        if (applicationRepository.existsByNameAndUserIdAndIdNot(name, currentUserId, id)) {
             throw new RuntimeException("Application with name '" + name + "' already exists");
         }
         
         application.setName(name);
         
         if (iconPath != null && !iconPath.trim().isEmpty()) {
+            assetStore.updateReferences(assetStore.findReferences(application.getIconPath()),
+                    assetStore.findReferences(iconPath));
             application.setIconPath(iconPath);
         }
         application.setUpdatedAt(java.time.LocalDateTime.now());
@@ -85,8 +146,39 @@ public class ApplicationService {
         return applicationRepository.save(application);
     }
     
+    // Copies the application and all of its screens in one transaction. Screens are copied by
+    // a single INSERT ... SELECT, so no layout is loaded; assets are shared, not copied
+    @Transactional
+    public Application duplicateApplication(Long id) {
+        Application source = loadApplication(id);
+        Long currentUserId = getCurrentUserId();
+        
+        if (!source.getUserId().equals(currentUserId)) {
+            throw new RuntimeException("Access denied: You can only duplicate your own applications");
+        }
+        
+        String base = CopyNames.base(source.getName());
+        String name = CopyNames.next(base,
+                applicationRepository.findNamesByPrefix(currentUserId, KeysetCursor.prefixPattern(base)));
+        Application copy = new Application(name, currentUserId);
+        copy.setIconPath(source.getIconPath());
+        // the copy's row must exist before the screens are inserted under it
+        Application saved = applicationRepository.saveAndFlush(copy);
+        
+        screenRepository.copyScreens(id, saved.getId(), Screen.ID_BLOCK_SIZE, saved.getCreatedAt());
+        
+        List<String> retained = new ArrayList<>(assetStore.findReferences(source.getIconPath()));
+        for (String refs : screenRepository.findAssetRefsByApplicationId(saved.getId())) {
+            retained.addAll(AssetStore.splitReferences(refs));
+        }
+        assetStore.retain(retained);
+        return saved;
+    }
+    
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.APPLICATIONS, CacheConfig.SCREEN_SUMMARIES}, key = "#id")
     public void deleteApplication(Long id) {
-        Application application = getApplicationById(id);
+        Application application = loadApplication(id);
         Long currentUserId = getCurrentUserId();
             
             // Check if the user whoIS CURRENTLY LOGGED INowns this application
@@ -94,15 +186,35 @@ public class ApplicationService {
             throw new RuntimeException("Access denied: You can only delete your own applications");
         }
         
+        // screens go with the application, so release what they referenced too
+        List<String> released = new ArrayList<>(assetStore.findReferences(application.getIconPath()));
+        for (String refs : screenRepository.findAssetRefsByApplicationId(id)) {
+            released.addAll(AssetStore.splitReferences(refs));
+        }
+        
         applicationRepository.deleteById(id);
+        assetStore.release(released);
     }
     
-    // Update updatedAt timestamp
+    // Update updatedAt timestamp with a single UPDATE; also serves as the existence check.
+    // Every screen edit comes through here, so the cached screen list goes too
+    @Transactional
+    @CacheEvict(cacheNames = {CacheConfig.APPLICATIONS, CacheConfig.SCREEN_SUMMARIES}, key = "#applicationId")
     public void touchUpdatedAt(Long applicationId) {
-        Application app = getApplicationById(applicationId);
-        app.setUpdatedAt(java.time.LocalDateTime.now());
-        applicationRepository.save(app);
+        if (applicationRepository.touch(applicationId, java.time.LocalDateTime.now()) == 0) {
+            throw new RuntimeException("Application not found with ID: " + applicationId);
+        }
+    }
+    
+    // For screen changes that do not touch the application: new previews, the image migration
+    @CacheEvict(cacheNames = CacheConfig.SCREEN_SUMMARIES, key = "#applicationId")
+    public void evictScreenSummaries(Long applicationId) {
+    }
+    
+    // If-Match precondition: the client must have seen the current version
+    private void checkVersion(Long currentVersion, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            throw new OptimisticLockingFailureException("Application was changed by someone else. Reload it and try again.");
+        }
     }
-
-
 }
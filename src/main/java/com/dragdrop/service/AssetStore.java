@@ -0,0 +1,214 @@
+package com.dragdrop.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import com.dragdrop.model.Asset;
+import com.dragdrop.repository.AssetRepository;
+
+// Content-addressed blob store: every distinct upload is kept once under its SHA-256
+@Service
+public class AssetStore {
+
+    public static final String URL_PREFIX = "/uploads/assets/";
+
+    private static final Pattern ASSET_URL = Pattern.compile("/uploads/assets/([0-9a-f]{64})\\.[a-z0-9]+");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Value("${app.upload.dir:uploads}")
+    private String uploadDir;
+
+    // store and sweep of the same hash must not interleave
+    private final ReentrantLock[] locks = new ReentrantLock[64];
+
+    public AssetStore() {
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    // Streams the upload to a temp file while hashing it, then keeps a single copy per hash
+    public Asset store(InputStream in, String extension) throws IOException {
+        Path dir = getAssetDir();
+        Files.createDirectories(dir);
+
+        Path temp = Files.createTempFile(dir, "upload-", ".tmp");
+        MessageDigest digest = newDigest();
+        long size = 0;
+        try (ReadableByteChannel source = Channels.newChannel(in);
+             FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    size += target.write(buffer);
+                }
+                buffer.clear();
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        String hash = HexFormat.of().formatHex(digest.digest());
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            Asset asset = assetRepository.findById(hash).orElse(null);
+            if (asset != null && assetRepository.markUploaded(hash, LocalDateTime.now()) > 0) {
+                moveIntoPlace(temp, dir.resolve(asset.getFilename()));
+                return asset;
+            }
+
+            asset = new Asset(hash, normalizeExtension(extension), size);
+            moveIntoPlace(temp, dir.resolve(asset.getFilename()));
+            try {
+                return assetRepository.save(asset);
+            } catch (DataIntegrityViolationException e) {
+                // another instance inserted the same content first
+                return assetRepository.findById(hash).orElseThrow(() -> e);
+            }
+        } finally {
+            lock.unlock();
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public String getUrl(Asset asset) {
+        return URL_PREFIX + asset.getFilename();
+    }
+
+    // Hashes of all asset URLs found in the given texts (icon paths, layout JSON, ...)
+    public Set<String> findReferences(String... texts) {
+        Set<String> hashes = new LinkedHashSet<>();
+        for (String text : texts) {
+            if (text == null || !text.contains(URL_PREFIX)) {
+                continue;
+            }
+            Matcher matcher = ASSET_URL.matcher(text);
+            while (matcher.find()) {
+                hashes.add(matcher.group(1));
+            }
+        }
+        return hashes;
+    }
+
+    // Both accept duplicates: a hash listed n times gains/loses n references
+    public void retain(Collection<String> hashes) {
+        groupByCount(hashes).forEach((count, group) -> assetRepository.retain(group, count));
+    }
+
+    public void release(Collection<String> hashes) {
+        groupByCount(hashes).forEach((count, group) -> assetRepository.release(group, count));
+    }
+
+    // Retains what was added and releases what was dropped between two reference sets
+    public void updateReferences(Set<String> before, Set<String> after) {
+        Set<String> added = new LinkedHashSet<>(after);
+        added.removeAll(before);
+        Set<String> removed = new LinkedHashSet<>(before);
+        removed.removeAll(after);
+        retain(added);
+        release(removed);
+    }
+
+    // Screen.assetRefs is stored as a comma separated list of hashes
+    public static String joinReferences(Set<String> hashes) {
+        return hashes.isEmpty() ? null : String.join(",", hashes);
+    }
+
+    public static Set<String> splitReferences(String refs) {
+        if (refs == null || refs.isEmpty()) {
+            return new LinkedHashSet<>();
+        }
+        return new LinkedHashSet<>(Arrays.asList(refs.split(",")));
+    }
+
+    // Removes one orphaned blob; returns false if it was re-uploaded or referenced meanwhile
+    public boolean deleteIfOrphaned(Asset asset, LocalDateTime cutoff) throws IOException {
+        ReentrantLock lock = lockFor(asset.getHash());
+        lock.lock();
+        try {
+            if (assetRepository.deleteIfOrphaned(asset.getHash(), cutoff) == 0) {
+                return false;
+            }
+            Files.deleteIfExists(getAssetDir().resolve(asset.getFilename()));
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Path getAssetDir() {
+        return Paths.get(uploadDir, "assets");
+    }
+
+    private void moveIntoPlace(Path temp, Path target) throws IOException {
+        // same hash means same bytes, so replacing an existing file is harmless
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // one UPDATE per distinct multiplicity instead of one per hash
+    private static Map<Integer, Set<String>> groupByCount(Collection<String> hashes) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String hash : hashes) {
+            counts.merge(hash, 1, Integer::sum);
+        }
+        Map<Integer, Set<String>> groups = new HashMap<>();
+        counts.forEach((hash, count) -> groups.computeIfAbsent(count, c -> new LinkedHashSet<>()).add(hash));
+        return groups;
+    }
+
+    private ReentrantLock lockFor(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), locks.length)];
+    }
+
+    private static String normalizeExtension(String extension) {
+        String ext = extension == null ? "" : extension.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+        if (ext.isEmpty() || ext.length() > 16) {
+            return "bin";
+        }
+        return ext;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
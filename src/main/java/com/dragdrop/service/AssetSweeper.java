@@ -0,0 +1,56 @@
+package com.dragdrop.service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.dragdrop.model.Asset;
+import com.dragdrop.repository.AssetRepository;
+
+// Periodically removes blobs that nothing references any more
+@Component
+public class AssetSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(AssetSweeper.class);
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private AssetStore assetStore;
+
+    // uploads are unreferenced until the application/screen using them is saved
+    @Value("${app.assets.orphan-grace-minutes:60}")
+    private long orphanGraceMinutes;
+
+    @Scheduled(fixedDelayString = "${app.assets.sweep-interval-ms:3600000}",
+               initialDelayString = "${app.assets.sweep-interval-ms:3600000}")
+    public void sweep() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(orphanGraceMinutes);
+        int removed = 0;
+        List<Asset> batch;
+        do {
+            batch = assetRepository.findTop100ByRefCountAndLastUploadedAtBefore(0, cutoff);
+            for (Asset asset : batch) {
+                try {
+                    if (assetStore.deleteIfOrphaned(asset, cutoff)) {
+                        removed++;
+                    }
+                } catch (IOException e) {
+                    log.warn("Failed to delete orphaned asset {}: {}", asset.getFilename(), e.getMessage());
+                }
+            }
+        } while (batch.size() == 100);
+
+        if (removed > 0) {
+            log.info("Removed {} orphaned assets", removed);
+        }
+    }
+}
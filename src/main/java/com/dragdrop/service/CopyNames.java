@@ -0,0 +1,31 @@
+package com.dragdrop.service;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Names for duplicated screens and applications: "Login (copy)", "Login (copy 2)", ...
+public final class CopyNames {
+
+    private static final Pattern COPY_SUFFIX = Pattern.compile("(.*) \\(copy(?: \\d+)?\\)");
+
+    private CopyNames() {
+    }
+
+    // Copying a copy counts on from the original name rather than stacking suffixes
+    public static String base(String name) {
+        Matcher matcher = COPY_SUFFIX.matcher(name.trim());
+        return matcher.matches() ? matcher.group(1) : name.trim();
+    }
+
+    // taken holds the lower-cased names already in use that start with base(name)
+    public static String next(String name, Collection<String> taken) {
+        String base = base(name);
+        String candidate = base + " (copy)";
+        for (int n = 2; taken.contains(candidate.toLowerCase(Locale.ROOT)); n++) {
+            candidate = base + " (copy " + n + ")";
+        }
+        return candidate;
+    }
+}
@@ -0,0 +1,131 @@
+package com.dragdrop.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.dragdrop.model.Asset;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+// Moves base64 data: URIs embedded in a layout into the asset store and leaves URLs behind
+@Component
+public class InlineImageExtractor {
+
+    private static final String DATA_PREFIX = "data:";
+    private static final String BASE64_MARKER = ";base64,";
+
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "image/png", "png",
+            "image/jpeg", "jpg",
+            "image/jpg", "jpg",
+            "image/gif", "gif",
+            "image/svg+xml", "svg",
+            "image/webp", "webp",
+            "image/bmp", "bmp");
+
+    @Autowired
+    private AssetStore assetStore;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    // Cheap pre-check; a match may still be text that only looks like a base64 URI
+    public boolean hasInlineData(String layoutJson) {
+        return layoutJson != null && layoutJson.contains("\"" + DATA_PREFIX) && layoutJson.contains(BASE64_MARKER);
+    }
+
+    // Copies the layout token by token; only string values holding a base64 data: URI are rewritten.
+    // Returns the same string instance when there was nothing to rewrite
+    public String extract(String layoutJson) {
+        if (!hasInlineData(layoutJson)) {
+            return layoutJson;
+        }
+
+        boolean replaced = false;
+        StringWriter out = new StringWriter(layoutJson.length() / 4);
+        try (JsonParser parser = jsonFactory.createParser(layoutJson);
+             JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.VALUE_STRING) {
+                    String value = parser.getText();
+                    if (isBase64DataUri(value)) {
+                        generator.writeString(storeDataUri(value));
+                        replaced = true;
+                        continue;
+                    }
+                }
+                generator.copyCurrentEvent(parser);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to process layout: " + e.getMessage());
+        }
+        return replaced ? out.toString() : layoutJson;
+    }
+
+    // The only inline data the extractor moves out; LayoutValidator exempts exactly these
+    static boolean isBase64DataUri(String value) {
+        return value.startsWith(DATA_PREFIX) && value.indexOf(BASE64_MARKER) > 0;
+    }
+
+    private String storeDataUri(String dataUri) throws IOException {
+        int marker = dataUri.indexOf(BASE64_MARKER);
+        String mimeType = dataUri.substring(DATA_PREFIX.length(), marker);
+        int paramStart = mimeType.indexOf(';');
+        if (paramStart >= 0) {
+            mimeType = mimeType.substring(0, paramStart);
+        }
+        String extension = EXTENSIONS.getOrDefault(mimeType.toLowerCase(Locale.ROOT), "bin");
+
+        // decode straight from the string into the store, without an intermediate byte[]
+        try (InputStream in = Base64.getDecoder().wrap(
+                new AsciiInputStream(dataUri, marker + BASE64_MARKER.length()))) {
+            Asset asset = assetStore.store(in, extension);
+            return assetStore.getUrl(asset);
+        } catch (IOException e) {
+            throw new IOException("Invalid inline image data: " + e.getMessage(), e);
+        }
+    }
+
+    // Exposes the tail of a string of ASCII characters as bytes
+    private static class AsciiInputStream extends InputStream {
+
+        private final String text;
+        private int position;
+
+        AsciiInputStream(String text, int start) {
+            this.text = text;
+            this.position = start;
+        }
+
+        @Override
+        public int read() {
+            return position < text.length() ? toByte(text.charAt(position++)) : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (position >= text.length()) {
+                return -1;
+            }
+            int count = Math.min(length, text.length() - position);
+            for (int i = 0; i < count; i++) {
+                buffer[offset + i] = (byte) toByte(text.charAt(position++));
+            }
+            return count;
+        }
+
+        // anything outside ASCII becomes '?', which the base64 decoder rejects
+        private static int toByte(char c) {
+            return c < 0x80 ? c : '?';
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.dragdrop.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.dragdrop.repository.ScreenRepository;
+
+// One-off: run with --app.migration.extract-inline-images=true to move existing base64 backgrounds into the asset store
+@Component
+@ConditionalOnProperty(name = "app.migration.extract-inline-images", havingValue = "true")
+public class InlineImageMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(InlineImageMigration.class);
+
+    @Autowired
+    private ScreenRepository screenRepository;
+
+    @Autowired
+    private ScreenService screenService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<Long> ids = screenRepository.findIdsWithInlineData();
+        log.info("Extracting inline images from {} screens", ids.size());
+
+        int migrated = 0;
+        int failed = 0;
+        // one transaction per screen so a bad row doesn't roll back the whole batch
+        for (Long id : ids) {
+            try {
+                if (screenService.extractInlineImages(id)) {
+                    migrated++;
+                }
+            } catch (RuntimeException e) {
+                failed++;
+                log.warn("Failed to extract inline images from screen {}: {}", id, e.getMessage());
+            }
+        }
+        log.info("Inline image extraction finished: {} migrated, {} failed", migrated, failed);
+    }
+}
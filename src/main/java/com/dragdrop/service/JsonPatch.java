@@ -0,0 +1,176 @@
+package com.dragdrop.service;
+
+import java.util.Comparator;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+// Applies RFC 6902 JSON Patch documents to a Jackson tree
+public final class JsonPatch {
+
+    // RFC 6902 4.6: numbers are equal when their values are, so 1 matches 1.0; applied at every
+    // level of nested objects and arrays
+    private static final Comparator<JsonNode> TEST_EQUALITY = (a, b) -> {
+        if (a.isNumber() && b.isNumber()) {
+            return a.decimalValue().compareTo(b.decimalValue());
+        }
+        return a.equals(b) ? 0 : 1;
+    };
+
+    private JsonPatch() {
+    }
+
+    // Operations are applied in order; the document may be modified in place
+    public static JsonNode apply(JsonNode document, JsonNode patch) {
+        if (patch == null || !patch.isArray()) {
+            throw new RuntimeException("Patch must be a JSON array of operations");
+        }
+        JsonNode root = document;
+        for (JsonNode operation : patch) {
+            root = applyOperation(root, operation);
+        }
+        return root;
+    }
+
+    private static JsonNode applyOperation(JsonNode root, JsonNode operation) {
+        String op = requiredText(operation, "op");
+        JsonPointer path = pointer(requiredText(operation, "path"));
+
+        switch (op) {
+            case "add":
+                return add(root, path, requiredValue(operation));
+            case "remove":
+                remove(root, path);
+                return root;
+            case "replace":
+                return replace(root, path, requiredValue(operation));
+            case "move": {
+                JsonPointer from = pointer(requiredText(operation, "from"));
+                if (from.equals(path)) {
+                    return root;
+                }
+                if (path.toString().startsWith(from + "/")) {
+                    throw new RuntimeException("Cannot move " + from + " into itself");
+                }
+                return add(root, path, remove(root, from));
+            }
+            case "copy": {
+                JsonPointer from = pointer(requiredText(operation, "from"));
+                return add(root, path, get(root, from).deepCopy());
+            }
+            case "test":
+                if (!get(root, path).equals(TEST_EQUALITY, requiredValue(operation))) {
+                    throw new RuntimeException("Test failed at " + path);
+                }
+                return root;
+            default:
+                throw new RuntimeException("Unsupported patch operation: " + op);
+        }
+    }
+
+    private static JsonNode add(JsonNode root, JsonPointer path, JsonNode value) {
+        if (path.matches()) {
+            return value;
+        }
+        JsonNode parent = parentOf(root, path);
+        String key = path.last().getMatchingProperty();
+        if (parent.isObject()) {
+            ((ObjectNode) parent).set(key, value);
+        } else {
+            ArrayNode array = (ArrayNode) parent;
+            if ("-".equals(key)) {
+                array.add(value);
+            } else {
+                array.insert(index(key, array.size(), path), value);
+            }
+        }
+        return root;
+    }
+
+    private static JsonNode remove(JsonNode root, JsonPointer path) {
+        if (path.matches()) {
+            throw new RuntimeException("Cannot remove the whole document");
+        }
+        JsonNode parent = parentOf(root, path);
+        String key = path.last().getMatchingProperty();
+        if (parent.isObject()) {
+            if (!parent.has(key)) {
+                throw new RuntimeException("Path not found: " + path);
+            }
+            return ((ObjectNode) parent).remove(key);
+        }
+        ArrayNode array = (ArrayNode) parent;
+        return array.remove(index(key, array.size() - 1, path));
+    }
+
+    private static JsonNode replace(JsonNode root, JsonPointer path, JsonNode value) {
+        if (path.matches()) {
+            return value;
+        }
+        JsonNode parent = parentOf(root, path);
+        String key = path.last().getMatchingProperty();
+        if (parent.isObject()) {
+            if (!parent.has(key)) {
+                throw new RuntimeException("Path not found: " + path);
+            }
+            ((ObjectNode) parent).set(key, value);
+        } else {
+            ArrayNode array = (ArrayNode) parent;
+            array.set(index(key, array.size() - 1, path), value);
+        }
+        return root;
+    }
+
+    private static JsonNode get(JsonNode root, JsonPointer path) {
+        JsonNode node = root.at(path);
+        if (node.isMissingNode()) {
+            throw new RuntimeException("Path not found: " + path);
+        }
+        return node;
+    }
+
+    private static JsonNode parentOf(JsonNode root, JsonPointer path) {
+        JsonNode parent = root.at(path.head());
+        if (!parent.isContainerNode()) {
+            throw new RuntimeException("Path not found: " + path);
+        }
+        return parent;
+    }
+
+    private static int index(String key, int max, JsonPointer path) {
+        if (!key.matches("0|[1-9][0-9]{0,8}")) {
+            throw new RuntimeException("Invalid array index in " + path);
+        }
+        int index = Integer.parseInt(key);
+        if (index > max) {
+            throw new RuntimeException("Array index out of bounds: " + path);
+        }
+        return index;
+    }
+
+    private static JsonPointer pointer(String text) {
+        try {
+            return JsonPointer.compile(text);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid JSON pointer: " + text);
+        }
+    }
+
+    private static String requiredText(JsonNode operation, String field) {
+        JsonNode node = operation.get(field);
+        if (node == null || !node.isTextual()) {
+            throw new RuntimeException("Patch operation is missing '" + field + "'");
+        }
+        return node.asText();
+    }
+
+    private static JsonNode requiredValue(JsonNode operation) {
+        JsonNode value = operation.get("value");
+        if (value == null) {
+            throw new RuntimeException("Patch operation is missing 'value'");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,231 @@
+package com.dragdrop.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Checks a layout against the shape ScreenLayout expects and against size budgets before it is
+// stored. Walks the token stream without building a tree and stops at the first problem.
+@Component
+public class LayoutValidator {
+
+    private static final Set<String> NUMBER_FIELDS = Set.of("x", "y", "width", "height", "zIndex");
+    private static final Pattern NUMERIC_TEXT = Pattern.compile("\\s*(-?\\d+(\\.\\d*)?)?\\s*");
+    private static final Set<String> STRING_FIELDS = Set.of("type", "text", "placeholder", "textColor", "imagePath");
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // inline images are moved to the asset store, so they count against their own cap instead
+    @Value("${app.layout.max-bytes:524288}")
+    private int maxBytes;
+
+    @Value("${app.layout.max-components:500}")
+    private int maxComponents;
+
+    @Value("${app.layout.max-string-length:10000}")
+    private int maxStringLength;
+
+    @Value("${app.layout.max-inline-image-length:14000000}")
+    private int maxInlineImageLength;
+
+    // all inline images of one layout together
+    @Value("${app.layout.max-inline-bytes:16000000}")
+    private long maxInlineBytes;
+
+    @Value("${app.layout.max-depth:16}")
+    private int maxDepth;
+
+    // Upper bound of a layout document that can pass validate(): structure plus inline images
+    public long maxDocumentBytes() {
+        return maxBytes + maxInlineBytes;
+    }
+
+    public void validate(String layoutJson) {
+        if (layoutJson == null) {
+            throw new RuntimeException("Layout is required");
+        }
+        try (JsonParser parser = objectMapper.getFactory().createParser(layoutJson.getBytes(StandardCharsets.UTF_8))) {
+            new Walk(parser).layout();
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Invalid layout JSON at " + describe(e.getLocation()) + ": " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String describe(JsonLocation location) {
+        return location == null ? "unknown position"
+                : "line " + location.getLineNr() + ", column " + location.getColumnNr();
+    }
+
+    // One pass over one document; depth counts containers, the root being 1
+    private class Walk {
+
+        private final JsonParser parser;
+        private long inlineBytes;
+
+        Walk(JsonParser parser) {
+            this.parser = parser;
+        }
+
+        void layout() throws IOException {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                components(1);
+            } else if (token == JsonToken.START_OBJECT) {
+                while (nextField() != null) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    if (field.equals("components")) {
+                        if (value != JsonToken.START_ARRAY) {
+                            throw reject("'components' must be an array");
+                        }
+                        components(2);
+                    } else if (field.equals("backgroundColor") || field.equals("backgroundImage")) {
+                        expectString(field, value);
+                        value(value, 2);
+                    } else {
+                        value(value, 2);
+                    }
+                }
+            } else {
+                throw reject("a layout must be a JSON object or array");
+            }
+            if (parser.nextToken() != null) {
+                throw reject("unexpected content after the layout");
+            }
+        }
+
+        private void components(int depth) throws IOException {
+            int count = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw reject("each component must be an object");
+                }
+                if (++count > maxComponents) {
+                    throw reject("more than " + maxComponents + " components");
+                }
+                component(depth + 1);
+            }
+        }
+
+        private void component(int depth) throws IOException {
+            checkDepth(depth);
+            while (nextField() != null) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (NUMBER_FIELDS.contains(field) && !isNumber(value)) {
+                    throw reject("component field '" + field + "' must be a number");
+                }
+                if (STRING_FIELDS.contains(field)) {
+                    expectString(field, value);
+                }
+                if (field.equals("checked") && !value.isBoolean() && value != JsonToken.VALUE_NULL) {
+                    throw reject("component field 'checked' must be true or false");
+                }
+                value(value, depth + 1);
+            }
+        }
+
+        // Anything the designer may add later: only the budgets apply
+        private void value(JsonToken token, int depth) throws IOException {
+            if (token == JsonToken.START_OBJECT) {
+                checkDepth(depth);
+                while (nextField() != null) {
+                    value(parser.nextToken(), depth + 1);
+                }
+            } else if (token == JsonToken.START_ARRAY) {
+                checkDepth(depth);
+                JsonToken element;
+                while ((element = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    value(element, depth + 1);
+                }
+            } else if (token == JsonToken.VALUE_STRING) {
+                string();
+            }
+            checkSize();
+        }
+
+        private JsonToken nextField() throws IOException {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.END_OBJECT) {
+                return null;
+            }
+            if (parser.getTextLength() > maxStringLength) {
+                throw reject("a field name is longer than " + maxStringLength + " characters");
+            }
+            return token;
+        }
+
+        private void string() throws IOException {
+            int length = parser.getTextLength();
+            if (isInlineData()) {
+                if (length > maxInlineImageLength) {
+                    throw reject("an inline image is longer than " + maxInlineImageLength + " characters");
+                }
+                inlineBytes += length;
+                if (inlineBytes > maxInlineBytes) {
+                    throw reject("inline images total more than " + maxInlineBytes + " characters");
+                }
+            } else if (length > maxStringLength) {
+                throw reject("a string is longer than " + maxStringLength + " characters");
+            }
+        }
+
+        private boolean isInlineData() throws IOException {
+            if (parser.getTextLength() < 5) {
+                return false;
+            }
+            char[] text = parser.getTextCharacters();
+            int offset = parser.getTextOffset();
+            // only base64 URIs are moved to the asset store; any other data: string stays in the layout
+            return text[offset] == 'd' && text[offset + 1] == 'a' && text[offset + 2] == 't'
+                    && text[offset + 3] == 'a' && text[offset + 4] == ':'
+                    && InlineImageExtractor.isBase64DataUri(parser.getText());
+        }
+
+        // Older designers stored form input as text, so "12" and "" still count as numbers
+        private boolean isNumber(JsonToken value) throws IOException {
+            if (value.isNumeric() || value == JsonToken.VALUE_NULL) {
+                return true;
+            }
+            return value == JsonToken.VALUE_STRING && NUMERIC_TEXT.matcher(parser.getText()).matches();
+        }
+
+        private void expectString(String field, JsonToken value) {
+            if (value != JsonToken.VALUE_STRING && value != JsonToken.VALUE_NULL) {
+                throw reject("'" + field + "' must be a string");
+            }
+        }
+
+        private void checkDepth(int depth) {
+            if (depth > maxDepth) {
+                throw reject("nested more than " + maxDepth + " levels deep");
+            }
+        }
+
+        private void checkSize() {
+            if (parser.currentLocation().getByteOffset() - inlineBytes > maxBytes) {
+                throw reject("larger than " + maxBytes + " bytes");
+            }
+        }
+
+        private RuntimeException reject(String reason) {
+            return new RuntimeException("Invalid layout at " + describe(parser.currentLocation()) + ": " + reason);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.dragdrop.service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.dragdrop.model.Application;
+import com.dragdrop.model.Asset;
+import com.dragdrop.model.Screen;
+import com.dragdrop.repository.AssetRepository;
+import com.dragdrop.repository.ScreenRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+
+// Streams an application's screens as a ZIP of rendered PNGs plus their raw layouts. The manifest
+// keeps the original screen names, and every asset a layout or the icon points at is bundled
+// under assets/, so the archive imports into another installation with its images intact
+@Service
+public class ScreenExportService {
+
+    @Autowired
+    private ScreenRepository screenRepository;
+
+    @Autowired
+    private ScreenThumbnailRenderer renderer;
+
+    @Autowired
+    private AssetStore assetStore;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.export.image-width:750}")
+    private int imageWidth;
+
+    private final int threads = Runtime.getRuntime().availableProcessors();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("export-"));
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    // Screens render in parallel but are written in order; at most a small window of them
+    // is held in memory, however many the application has
+    public void writeZip(Application application, OutputStream out) throws IOException {
+        Map<Long, String> baseNames = new LinkedHashMap<>();
+        List<Map<String, String>> files = new ArrayList<>();
+        for (Object[] row : screenRepository.findIdsAndNamesByApplicationId(application.getId())) {
+            Long id = (Long) row[0];
+            String name = (String) row[1];
+            baseNames.put(id, String.format("%d-%s", id, fileName(name)));
+            files.add(Map.of("file", baseNames.get(id) + ".json", "name", name));
+        }
+        Iterator<Map.Entry<Long, String>> remaining = baseNames.entrySet().iterator();
+        Deque<Future<RenderedScreen>> window = new ArrayDeque<>();
+        int windowSize = threads * 2;
+        Set<String> writtenAssets = new HashSet<>();
+
+        try (ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8)) {
+            // assets come before whatever points at them, so the import can count the references
+            writeAssets(zip, assetStore.findReferences(application.getIconPath()), writtenAssets);
+
+            // header record for the import endpoint, so an export can be imported as is;
+            // file names are sanitised, the manifest keeps the real screen names
+            Map<String, Object> manifest = new LinkedHashMap<>();
+            manifest.put("type", "application");
+            manifest.put("name", application.getName());
+            manifest.put("iconPath", application.getIconPath() == null ? "" : application.getIconPath());
+            manifest.put("screens", files);
+            zip.putNextEntry(new ZipEntry(ApplicationImportService.MANIFEST_ENTRY));
+            zip.write(objectMapper.writeValueAsBytes(manifest));
+            zip.closeEntry();
+
+            while (remaining.hasNext() || !window.isEmpty()) {
+                while (remaining.hasNext() && window.size() < windowSize) {
+                    Map.Entry<Long, String> next = remaining.next();
+                    window.add(executor.submit(() -> render(next.getKey(), next.getValue())));
+                }
+                RenderedScreen screen = await(window.poll());
+                if (screen != null) {
+                    writeAssets(zip, assetStore.findReferences(screen.layoutJson), writtenAssets);
+                    write(zip, screen);
+                }
+            }
+        } finally {
+            // client went away or a render failed: stop the rest
+            window.forEach(future -> future.cancel(true));
+        }
+    }
+
+    // named as listed in the manifest, even if the screen was renamed since
+    private RenderedScreen render(Long id, String baseName) throws IOException {
+        Screen screen = screenRepository.findWithLayoutById(id).orElse(null);
+        if (screen == null) {
+            return null;
+        }
+        return new RenderedScreen(baseName, screen.getLayoutJson(), renderer.render(screen.getLayoutJson(), imageWidth));
+    }
+
+    // Each blob once per archive, under its content-addressed file name; already compressed
+    // images gain little from deflate, but SVGs and the like do
+    private void writeAssets(ZipOutputStream zip, Set<String> hashes, Set<String> written) throws IOException {
+        for (String hash : hashes) {
+            if (!written.add(hash)) {
+                continue;
+            }
+            Asset asset = assetRepository.findById(hash).orElse(null);
+            Path file = asset == null ? null : assetStore.getAssetDir().resolve(asset.getFilename());
+            if (file == null || !Files.exists(file)) {
+                continue;
+            }
+            zip.putNextEntry(new ZipEntry(ApplicationImportService.ASSET_DIR + asset.getFilename()));
+            Files.copy(file, zip);
+            zip.closeEntry();
+        }
+    }
+
+    private void write(ZipOutputStream zip, RenderedScreen screen) throws IOException {
+        // PNG is already compressed, so store it as is
+        ZipEntry image = new ZipEntry(screen.baseName + ".png");
+        CRC32 crc = new CRC32();
+        crc.update(screen.png);
+        image.setMethod(ZipEntry.STORED);
+        image.setSize(screen.png.length);
+        image.setCrc(crc.getValue());
+        zip.putNextEntry(image);
+        zip.write(screen.png);
+        zip.closeEntry();
+
+        zip.putNextEntry(new ZipEntry(screen.baseName + ".json"));
+        zip.write(screen.layoutJson.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    private static RenderedScreen await(Future<RenderedScreen> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Export interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to render screen: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    public static String fileName(String name) {
+        String safe = name == null ? "" : name.trim().replaceAll("[^A-Za-z0-9._ -]", "_");
+        return safe.isEmpty() ? "screen" : safe;
+    }
+
+    private static class RenderedScreen {
+
+        private final String baseName;
+        private final String layoutJson;
+        private final byte[] png;
+
+        RenderedScreen(String baseName, String layoutJson, byte[] png) {
+            this.baseName = baseName;
+            this.layoutJson = layoutJson;
+            this.png = png;
+        }
+    }
+}
@@ -1,12 +1,29 @@
 package com.dragdrop.service;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.dragdrop.config.CacheConfig;
+import com.dragdrop.model.ComponentCount;
+import com.dragdrop.model.CursorPage;
 import com.dragdrop.model.Screen;
+import com.dragdrop.model.ScreenSummary;
 import com.dragdrop.repository.ScreenRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 
 @Service
 public class ScreenService {
@@ -17,20 +34,55 @@ public class ScreenService {
     @Autowired
     private ApplicationService applicationService;
     
+    @Autowired
+    private AssetStore assetStore;
+    
+    @Autowired
+    private InlineImageExtractor inlineImageExtractor;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ScreenThumbnailService screenThumbnailService;
+    
+    @Autowired
+    private LayoutValidator layoutValidator;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private DistributionSummary savedLayoutSizes;
+    private DistributionSummary loadedLayoutSizes;
+    
+    // Stored layout sizes, so payload growth shows up next to the endpoint latencies
+    @PostConstruct
+    public void registerMetrics() {
+        savedLayoutSizes = layoutSizes("save");
+        loadedLayoutSizes = layoutSizes("load");
+    }
+    
+    @Transactional
     public Screen createScreen(Long applicationId, String name, String layoutJson, String screenImagePath) {
-        // Get application ID TO CHECK IF IT EXISTS
-        applicationService.getApplicationById(applicationId);
+        layoutValidator.validate(layoutJson);
+        
+        // touching the parent first also checks that it exists; rolled back if the insert fails
+        applicationService.touchUpdatedAt(applicationId);
         
         if (screenRepository.existsByNameAndApplicationId(name, applicationId)) {
             throw new RuntimeException("Screen with name '" + name + "' already exists in this application");
         }
         
+        layoutJson = inlineImageExtractor.extract(layoutJson);
         Screen screen = new Screen(applicationId, name, layoutJson);
         screen.setScreenImagePath(screenImagePath);
+        Set<String> refs = assetStore.findReferences(layoutJson, screenImagePath);
+        screen.setAssetRefs(AssetStore.joinReferences(refs));
+        assetStore.retain(refs);
 
         Screen saved = screenRepository.save(screen);
-        // update updatedAt here for PARENT APPLICATION SERVICE
-        applicationService.touchUpdatedAt(applicationId);
+        recordLayoutSize(savedLayoutSizes, saved);
+        screenThumbnailService.requestThumbnail(saved.getId());
         return saved;
     }
     
@@ -40,33 +92,209 @@ public class ScreenService {
         return screenRepository.findByApplicationIdOrderByCreatedAtDesc(applicationId);
     }
     
+    // Keyset-paginated summaries, newest first, optionally filtered by name prefix. The plain
+    // first page, which the designer loads on every open, is cached until a screen changes
+    @Cacheable(cacheNames = CacheConfig.SCREEN_SUMMARIES, key = "#applicationId",
+            condition = "#prefix == null && #cursor == null && #size == null")
+    public CursorPage<ScreenSummary> getScreenSummaryPage(Long applicationId, String prefix, String cursor, Integer size) {
+        applicationService.getApplicationById(applicationId);
+        
+        String pattern = KeysetCursor.prefixPattern(prefix);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable fetch = KeysetCursor.fetchSize(size);
+        List<ScreenSummary> rows = after == null
+                ? screenRepository.findSummaryPage(applicationId, pattern, fetch)
+                : screenRepository.findSummaryPageBefore(applicationId, pattern, after.getTimestamp(), after.getId(), fetch);
+        return KeysetCursor.toPage(rows, fetch, screen -> new KeysetCursor(screen.getCreatedAt(), screen.getId()));
+    }
+    
+    // Copies the screen next to the original under a free "(copy n)" name; the layout stays in
+    // the database and the copy shares the original's assets and preview
+    @Transactional
+    public ScreenSummary duplicateScreen(Long id) {
+        ScreenSummary source = screenRepository.findSummaryById(id)
+                .orElseThrow(() -> new RuntimeException("Screen not found with ID: " + id));
+        applicationService.touchUpdatedAt(source.getApplicationId());
+        
+        String base = CopyNames.base(source.getName());
+        String name = CopyNames.next(base,
+                screenRepository.findNamesByPrefix(source.getApplicationId(), KeysetCursor.prefixPattern(base)));
+        // nextval() reserves the block (hi - size, hi] for this call alone, as it does for Hibernate's
+        // pooled optimizer; the copy takes its first id, like copyScreens, and the rest goes unused
+        Long newId = screenRepository.nextIdBlock() - Screen.ID_BLOCK_SIZE + 1;
+        screenRepository.copyScreen(id, newId, name, LocalDateTime.now());
+        
+        ScreenSummary copy = screenRepository.findSummaryById(newId)
+                .orElseThrow(() -> new RuntimeException("Screen not found with ID: " + id));
+        assetStore.retain(AssetStore.splitReferences(screenRepository.findAssetRefsById(newId)));
+        return copy;
+    }
+    
+    // Answered from the jsonb layouts without loading any of them
+    public List<ScreenSummary> findScreensByComponentType(Long applicationId, String type) {
+        applicationService.getApplicationById(applicationId);
+        if (type == null || type.isBlank()) {
+            throw new RuntimeException("Component type is required");
+        }
+        
+        return screenRepository.findSummariesByComponentType(applicationId, type.trim());
+    }
+    
+    public List<ComponentCount> countComponents(Long id) {
+        if (!screenRepository.existsById(id)) {
+            throw new RuntimeException("Screen not found with ID: " + id);
+        }
+        return screenRepository.countComponentsByType(id);
+    }
+    
+    public List<ComponentCount> countApplicationComponents(Long applicationId) {
+        applicationService.getApplicationById(applicationId);
+        
+        return screenRepository.countComponentsByTypeInApplication(applicationId);
+    }
+    
+    public boolean isNameAvailable(Long applicationId, String name, Long excludeId) {
+        if (excludeId != null) {
+            return !screenRepository.existsByNameAndApplicationIdAndIdNot(name, applicationId, excludeId);
+        }
+        return !screenRepository.existsByNameAndApplicationId(name, applicationId);
+    }
+    
+    // The layout is not loaded until getLayoutJson() is called inside a transaction
     public Screen getScreenById(Long id) {
         return screenRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Screen not found with ID: " + id));
     }
     
-    public Screen updateScreen(Long id, String name, String layoutJson, String screenImagePath) {
+    // For callers that hand the layout on (API responses, the designer, the write buffer)
+    public Screen getScreenWithLayout(Long id) {
+        Screen screen = screenRepository.findWithLayoutById(id)
+                .orElseThrow(() -> new RuntimeException("Screen not found with ID: " + id));
+        recordLayoutSize(loadedLayoutSizes, screen);
+        return screen;
+    }
+    
+    @Transactional
+    public Screen updateScreen(Long id, String name, String layoutJson, String screenImagePath, Long expectedVersion) {
+        layoutValidator.validate(layoutJson);
+        
         Screen screen = getScreenById(id);
+        checkVersion(screen.getVersion(), expectedVersion);
         
-        if (!screen.getName().equals(name) && 
-            screenRepository.existsByNameAndApplicationId(name, screen.getApplicationId())) {
+        if (screenRepository.existsByNameAndApplicationIdAndIdNot(name, screen.getApplicationId(), id)) {
             throw new RuntimeException("Screen with name '" + name + "' already exists in this application");
         }
         
         screen.setName(name);
-        screen.setLayoutJson(layoutJson);
-        screen.setScreenImagePath(screenImagePath);
+        // the designer sends no preview; keep the rendered one until the new render lands
+        if (screenImagePath != null) {
+            screen.setScreenImagePath(screenImagePath);
+        }
+        applyLayout(screen, layoutJson);
+
+        Screen saved = screenRepository.save(screen);
+        applicationService.touchUpdatedAt(screen.getApplicationId());
+        screenThumbnailService.requestThumbnail(id);
+        return saved;
+    }
+    
+    // Applies an RFC 6902 patch to the stored layout, so a save only carries what changed
+    @Transactional
+    public Screen patchScreenLayout(Long id, String patchJson, Long expectedVersion) {
+        Screen screen = getScreenWithLayout(id);
+        checkVersion(screen.getVersion(), expectedVersion);
+        
+        String layoutJson;
+        try {
+            JsonNode layout = objectMapper.readTree(screen.getLayoutJson());
+            JsonNode patched = JsonPatch.apply(layout, objectMapper.readTree(patchJson));
+            layoutJson = objectMapper.writeValueAsString(patched);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Invalid patch: " + e.getOriginalMessage());
+        }
+        layoutValidator.validate(layoutJson);
+        applyLayout(screen, layoutJson);
 
         Screen saved = screenRepository.save(screen);
         applicationService.touchUpdatedAt(screen.getApplicationId());
+        screenThumbnailService.requestThumbnail(id);
         return saved;
     }
     
+    // Writes one coalesced autosave; the write buffer touches the parent once per flush
+    @Transactional
+    public void writeBufferedLayout(Long id, String layoutJson, Long baseVersion) {
+        Screen screen = getScreenWithLayout(id);
+        checkVersion(screen.getVersion(), baseVersion);
+        
+        String before = screen.getLayoutJson();
+        applyLayout(screen, layoutJson);
+        if (screen.getLayoutJson().equals(before)) {
+            // the edits cancelled out, but the client was already handed base + 1
+            screenRepository.incrementVersion(id);
+        } else {
+            screenRepository.save(screen);
+            screenThumbnailService.requestThumbnail(id);
+        }
+    }
+    
+    // Used by the one-off migration; not a user edit, so the parent is not touched
+    @Transactional
+    public boolean extractInlineImages(Long id) {
+        Screen screen = getScreenWithLayout(id);
+        String layoutJson = screen.getLayoutJson();
+        String extracted = inlineImageExtractor.extract(layoutJson);
+        if (extracted == layoutJson) {
+            // only text that looks like a data: URI; saving would just bump the version
+            return false;
+        }
+        
+        applyLayout(screen, extracted);
+        screenRepository.save(screen);
+        applicationService.evictScreenSummaries(screen.getApplicationId());
+        return true;
+    }
+    
+    @Transactional
     public void deleteScreen(Long id) {
         Screen screen = getScreenById(id);
         screenRepository.deleteById(id);
+        assetStore.release(AssetStore.splitReferences(screen.getAssetRefs()));
         applicationService.touchUpdatedAt(screen.getApplicationId());
     }
     
+    // Stores the layout with inline images extracted and moves asset references along
+    private void applyLayout(Screen screen, String layoutJson) {
+        layoutJson = inlineImageExtractor.extract(layoutJson);
+        screen.setLayoutJson(layoutJson);
+        Set<String> refs = assetStore.findReferences(layoutJson, screen.getScreenImagePath());
+        assetStore.updateReferences(AssetStore.splitReferences(screen.getAssetRefs()), refs);
+        screen.setAssetRefs(AssetStore.joinReferences(refs));
+        recordLayoutSize(savedLayoutSizes, screen);
+    }
     
+    private DistributionSummary layoutSizes(String operation) {
+        return DistributionSummary.builder("screen.layout.size")
+                .description("Size of screen layouts as stored, after inline images are extracted")
+                .baseUnit("bytes")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                // buckets from a near-empty screen up to twice the default size budget
+                .minimumExpectedValue(256.0)
+                .maximumExpectedValue(1048576.0)
+                .register(meterRegistry);
+    }
+    
+    private void recordLayoutSize(DistributionSummary sizes, Screen screen) {
+        if (screen.getLayoutSize() != null) {
+            sizes.record(screen.getLayoutSize());
+        }
+    }
+    
+    // If-Match precondition: the client must have seen the current version
+    private void checkVersion(Long currentVersion, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            throw new OptimisticLockingFailureException("Screen was changed by someone else. Reload it and try again.");
+        }
+    }
 }
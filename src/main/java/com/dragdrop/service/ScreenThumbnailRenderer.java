@@ -0,0 +1,299 @@
+package com.dragdrop.service;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.imageio.ImageIO;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.dragdrop.model.ScreenLayout;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Rasterizes a layout into a PNG preview with plain Java2D, mirroring the designer's CSS
+@Component
+public class ScreenThumbnailRenderer {
+
+    // size of the designer's screen area in CSS pixels
+    private static final int SCREEN_WIDTH = 375;
+    private static final int SCREEN_HEIGHT = 607;
+
+    private static final Color BUTTON_BACKGROUND = new Color(0x007bff);
+    private static final Color FIELD_BORDER = new Color(0xdddddd);
+    private static final Color PLACEHOLDER = new Color(0x999999);
+    private static final Color IMAGE_BACKGROUND = new Color(0xf8f9fa);
+    private static final Color IMAGE_TEXT = new Color(0x666666);
+
+    private static final Pattern LOCAL_ASSET = Pattern.compile(Pattern.quote(AssetStore.URL_PREFIX) + "([0-9a-f]{64}\\.[a-z0-9]+)");
+    private static final Pattern HEX_COLOR = Pattern.compile("#([0-9a-fA-F]{3}|[0-9a-fA-F]{6})");
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AssetStore assetStore;
+
+    @Value("${app.thumbnails.width:188}")
+    private int thumbnailWidth;
+
+    private final Font font = new Font(Font.SANS_SERIF, Font.PLAIN, 14);
+
+    public byte[] render(String layoutJson) throws IOException {
+        return render(layoutJson, thumbnailWidth);
+    }
+
+    // width in image pixels; the screen is scaled to fit, keeping its aspect ratio
+    public byte[] render(String layoutJson, int width) throws IOException {
+        ScreenLayout layout = ScreenLayout.read(objectMapper, layoutJson);
+
+        double scale = (double) width / SCREEN_WIDTH;
+        int height = (int) Math.round(SCREEN_HEIGHT * scale);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.scale(scale, scale);
+            g.setFont(font);
+
+            g.setColor(parseColor(layout.backgroundColor(), Color.WHITE));
+            g.fillRect(0, 0, SCREEN_WIDTH, SCREEN_HEIGHT);
+            BufferedImage background = loadImage(layout.backgroundImage());
+            if (background != null) {
+                drawCover(g, background, 0, 0, SCREEN_WIDTH, SCREEN_HEIGHT);
+            }
+
+            // same stacking as the designer: ascending z-index, document order on ties
+            List<ScreenLayout.Component> ordered = new ArrayList<>(layout.components());
+            ordered.removeIf(Objects::isNull);
+            ordered.sort(Comparator.comparingInt(ScreenLayout.Component::zIndex));
+            for (ScreenLayout.Component component : ordered) {
+                drawComponent(g, component);
+            }
+        } finally {
+            g.dispose();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private void drawComponent(Graphics2D g, ScreenLayout.Component component) {
+        double x = component.x();
+        double y = component.y();
+        double w = component.width() == null ? 100 : component.width();
+        double h = component.height() == null ? 50 : component.height();
+        String text = component.text() == null ? "" : component.text();
+        String placeholder = component.placeholder() == null ? "" : component.placeholder();
+        Color textColor = parseColor(component.textColor(), Color.BLACK);
+
+        Graphics2D cg = (Graphics2D) g.create();
+        try {
+            cg.clip(new Rectangle2D.Double(x, y, w, h));
+            switch (component.type() == null ? "" : component.type()) {
+                case "button":
+                    fill(cg, round(x, y, w, h), BUTTON_BACKGROUND);
+                    drawCentered(cg, text, x, y, w, h, textColor);
+                    break;
+                case "textbox":
+                    drawField(cg, x, y, w, h);
+                    drawFieldText(cg, text, placeholder, x + 8, y, w - 16, h, textColor, false);
+                    break;
+                case "textarea":
+                    drawField(cg, x, y, w, h);
+                    drawFieldText(cg, text, placeholder, x + 8, y + 8, w - 16, h - 16, textColor, true);
+                    break;
+                case "checkbox":
+                case "radio":
+                    drawChoice(cg, component, text, x, y, w, h, textColor);
+                    break;
+                case "image":
+                    drawImage(cg, component.imagePath(), text, x, y, w, h);
+                    break;
+                default:
+                    break;
+            }
+        } finally {
+            cg.dispose();
+        }
+    }
+
+    private void drawField(Graphics2D g, double x, double y, double w, double h) {
+        Shape box = round(x, y, w, h);
+        fill(g, box, Color.WHITE);
+        g.setColor(FIELD_BORDER);
+        g.draw(box);
+    }
+
+    private void drawFieldText(Graphics2D g, String text, String placeholder, double x, double y, double w, double h,
+                               Color textColor, boolean multiline) {
+        boolean empty = text.isEmpty();
+        String shown = empty ? placeholder : text;
+        Color color = empty ? PLACEHOLDER : textColor;
+        if (multiline) {
+            drawWrapped(g, shown, x, y, w, h, color);
+        } else {
+            FontMetrics metrics = g.getFontMetrics();
+            g.setColor(color);
+            g.drawString(shown, (float) x, (float) (y + (h - metrics.getHeight()) / 2 + metrics.getAscent()));
+        }
+    }
+
+    private void drawChoice(Graphics2D g, ScreenLayout.Component component, String text, double x, double y, double w, double h,
+                            Color textColor) {
+        Shape frame = new Rectangle2D.Double(x, y, w, h);
+        fill(g, frame, Color.WHITE);
+        g.setColor(FIELD_BORDER);
+        g.draw(frame);
+
+        boolean radio = "radio".equals(component.type());
+        boolean checked = component.checked();
+        double size = 13;
+        double bx = x + 8;
+        double by = y + (h - size) / 2;
+        Shape mark = radio ? new Ellipse2D.Double(bx, by, size, size) : new RoundRectangle2D.Double(bx, by, size, size, 3, 3);
+        fill(g, mark, checked ? BUTTON_BACKGROUND : Color.WHITE);
+        g.setColor(checked ? BUTTON_BACKGROUND : Color.GRAY);
+        g.draw(mark);
+        if (checked) {
+            g.setColor(Color.WHITE);
+            if (radio) {
+                g.fill(new Ellipse2D.Double(bx + 4, by + 4, size - 8, size - 8));
+            } else {
+                Path2D tick = new Path2D.Double();
+                tick.moveTo(bx + 3, by + 7);
+                tick.lineTo(bx + 5.5, by + 9.5);
+                tick.lineTo(bx + 10, by + 4);
+                g.setStroke(new BasicStroke(2f));
+                g.draw(tick);
+            }
+        }
+
+        FontMetrics metrics = g.getFontMetrics();
+        g.setColor(textColor);
+        g.drawString(text, (float) (bx + size + 8), (float) (y + (h - metrics.getHeight()) / 2 + metrics.getAscent()));
+    }
+
+    private void drawImage(Graphics2D g, String imagePath, String text, double x, double y, double w, double h) {
+        BufferedImage picture = loadImage(imagePath);
+        if (picture != null) {
+            drawCover(g, picture, x, y, w, h);
+            return;
+        }
+        Shape box = new Rectangle2D.Double(x + 1, y + 1, w - 2, h - 2);
+        fill(g, box, IMAGE_BACKGROUND);
+        g.setColor(FIELD_BORDER);
+        g.setStroke(new BasicStroke(2f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10f, new float[] {6f, 4f}, 0f));
+        g.draw(box);
+        drawCentered(g, text, x, y, w, h, IMAGE_TEXT);
+    }
+
+    private void drawCentered(Graphics2D g, String text, double x, double y, double w, double h, Color color) {
+        FontMetrics metrics = g.getFontMetrics();
+        g.setColor(color);
+        g.drawString(text, (float) (x + (w - metrics.stringWidth(text)) / 2),
+                (float) (y + (h - metrics.getHeight()) / 2 + metrics.getAscent()));
+    }
+
+    private void drawWrapped(Graphics2D g, String text, double x, double y, double w, double h, Color color) {
+        FontMetrics metrics = g.getFontMetrics();
+        g.setColor(color);
+        double baseline = y + metrics.getAscent();
+        for (String paragraph : text.split("\n", -1)) {
+            StringBuilder line = new StringBuilder();
+            for (String word : paragraph.split(" ", -1)) {
+                String candidate = line.length() == 0 ? word : line + " " + word;
+                if (line.length() > 0 && metrics.stringWidth(candidate) > w) {
+                    g.drawString(line.toString(), (float) x, (float) baseline);
+                    baseline += metrics.getHeight();
+                    line.setLength(0);
+                    line.append(word);
+                } else {
+                    line.setLength(0);
+                    line.append(candidate);
+                }
+                if (baseline > y + h + metrics.getAscent()) {
+                    return;
+                }
+            }
+            g.drawString(line.toString(), (float) x, (float) baseline);
+            baseline += metrics.getHeight();
+        }
+    }
+
+    // object-fit: cover
+    private void drawCover(Graphics2D g, BufferedImage picture, double x, double y, double w, double h) {
+        double scale = Math.max(w / picture.getWidth(), h / picture.getHeight());
+        double dw = picture.getWidth() * scale;
+        double dh = picture.getHeight() * scale;
+        Graphics2D ig = (Graphics2D) g.create();
+        try {
+            ig.clip(new Rectangle2D.Double(x, y, w, h));
+            ig.drawImage(picture, (int) Math.round(x + (w - dw) / 2), (int) Math.round(y + (h - dh) / 2),
+                    (int) Math.round(dw), (int) Math.round(dh), null);
+        } finally {
+            ig.dispose();
+        }
+    }
+
+    // Only files already in the asset store are read; anything else renders as a placeholder
+    private BufferedImage loadImage(String url) {
+        if (url == null) {
+            return null;
+        }
+        Matcher matcher = LOCAL_ASSET.matcher(url);
+        if (!matcher.matches()) {
+            return null;
+        }
+        Path file = assetStore.getAssetDir().resolve(matcher.group(1));
+        try {
+            return Files.isRegularFile(file) ? ImageIO.read(file.toFile()) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static Shape round(double x, double y, double w, double h) {
+        return new RoundRectangle2D.Double(x, y, w - 1, h - 1, 10, 10);
+    }
+
+    private static void fill(Graphics2D g, Shape shape, Color color) {
+        g.setColor(color);
+        g.fill(shape);
+    }
+
+    private static Color parseColor(String value, Color fallback) {
+        if (value == null || !HEX_COLOR.matcher(value).matches()) {
+            return fallback;
+        }
+        String hex = value.substring(1);
+        if (hex.length() == 3) {
+            hex = "" + hex.charAt(0) + hex.charAt(0) + hex.charAt(1) + hex.charAt(1) + hex.charAt(2) + hex.charAt(2);
+        }
+        return new Color(Integer.parseInt(hex, 16));
+    }
+}
@@ -0,0 +1,127 @@
+package com.dragdrop.service;
+
+import java.io.ByteArrayInputStream;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.dragdrop.model.Asset;
+import com.dragdrop.model.Screen;
+import com.dragdrop.repository.ScreenRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Renders screen previews in the background after each save and stores them as assets
+@Service
+public class ScreenThumbnailService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScreenThumbnailService.class);
+
+    @Autowired
+    private ScreenRepository screenRepository;
+
+    @Autowired
+    private ScreenThumbnailRenderer renderer;
+
+    @Autowired
+    private AssetStore assetStore;
+
+    @Autowired
+    private ApplicationService applicationService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.thumbnails.threads:2}")
+    private int threads;
+
+    @Value("${app.thumbnails.queue-size:100}")
+    private int queueSize;
+
+    private ThreadPoolExecutor executor;
+
+    // screens waiting for a worker; each renders whatever layout is stored when it runs
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void start() {
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), new CustomizableThreadFactory("thumbnail-"));
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    // Deferred until the surrounding transaction commits, so the worker reads the saved layout
+    public void requestThumbnail(Long screenId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(screenId);
+                }
+            });
+        } else {
+            submit(screenId);
+        }
+    }
+
+    private void submit(Long screenId) {
+        if (!queued.add(screenId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> render(screenId));
+        } catch (RejectedExecutionException e) {
+            // the next save of this screen asks again
+            queued.remove(screenId);
+            log.debug("Thumbnail queue full, skipped screen {}", screenId);
+        }
+    }
+
+    private void render(Long screenId) {
+        queued.remove(screenId);
+        try {
+            Screen screen = screenRepository.findWithLayoutById(screenId).orElse(null);
+            if (screen == null) {
+                return;
+            }
+
+            byte[] png = renderer.render(screen.getLayoutJson());
+            Asset asset = assetStore.store(new ByteArrayInputStream(png), "png");
+            String path = assetStore.getUrl(asset);
+            if (path.equals(screen.getScreenImagePath())) {
+                return;
+            }
+
+            Set<String> refs = assetStore.findReferences(screen.getLayoutJson(), path);
+            String previousPath = screen.getScreenImagePath() == null ? "" : screen.getScreenImagePath();
+            transactionTemplate.executeWithoutResult(status -> {
+                // skipped if the screen was saved or re-rendered since it was read
+                if (screenRepository.updateThumbnail(screenId, screen.getVersion(), previousPath, path,
+                        AssetStore.joinReferences(refs)) > 0) {
+                    assetStore.updateReferences(AssetStore.splitReferences(screen.getAssetRefs()), refs);
+                    applicationService.evictScreenSummaries(screen.getApplicationId());
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Failed to render thumbnail for screen {}: {}", screenId, e.getMessage());
+        }
+    }
+}
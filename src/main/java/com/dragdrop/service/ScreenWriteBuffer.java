@@ -0,0 +1,219 @@
+package com.dragdrop.service;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.dragdrop.model.Screen;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+
+// Write-behind buffer for autosaves: a burst of patches to a screen is applied in memory
+// and only the latest layout is written, on a short interval or before an explicit save
+@Component
+public class ScreenWriteBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(ScreenWriteBuffer.class);
+
+    @Autowired
+    private ScreenService screenService;
+
+    @Autowired
+    private ApplicationService applicationService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LayoutValidator layoutValidator;
+
+    @Value("${app.autosave.max-pending-screens:1000}")
+    private int maxPendingScreens;
+
+    private final Map<Long, PendingLayout> pending = new ConcurrentHashMap<>();
+
+    // Buffered edits that could not be written; the client was already told they were accepted,
+    // so the next autosave or read of the screen reports the loss once instead of hiding it
+    private final Map<Long, String> failures = new ConcurrentHashMap<>();
+
+    // Returns the version the screen will have once flushed, or null when the buffer is full
+    public Long apply(Long screenId, String patchJson, Long expectedVersion) {
+        JsonNode patch = parse(patchJson);
+        reportFailure(screenId);
+        while (true) {
+            PendingLayout entry = pending.get(screenId);
+            if (entry == null) {
+                if (pending.size() >= maxPendingScreens) {
+                    return null;
+                }
+                Screen screen = screenService.getScreenWithLayout(screenId);
+                entry = new PendingLayout(screen.getApplicationId(), screen.getVersion(), parse(screen.getLayoutJson()));
+                PendingLayout existing = pending.putIfAbsent(screenId, entry);
+                if (existing != null) {
+                    entry = existing;
+                }
+            }
+            entry.lock.lock();
+            try {
+                if (entry.flushed) {
+                    // written out meanwhile; start again from the stored screen
+                    continue;
+                }
+                if (expectedVersion != null && !expectedVersion.equals(entry.projectedVersion())) {
+                    throw new OptimisticLockingFailureException("Screen was changed by someone else. Reload it and try again.");
+                }
+                // a failing operation must not leave half a patch behind
+                JsonNode patched = JsonPatch.apply(entry.layout.deepCopy(), patch);
+                // rejected now rather than dropped at flush time
+                layoutValidator.validate(patched.toString());
+                entry.layout = patched;
+                entry.dirty = true;
+                return entry.projectedVersion();
+            } finally {
+                entry.lock.unlock();
+            }
+        }
+    }
+
+    // Called before anything reads or overwrites the stored screen
+    public void flush(Long screenId) {
+        PendingLayout entry = pending.get(screenId);
+        if (entry != null) {
+            touch(write(screenId, entry));
+        }
+    }
+
+    // For reads that hand the screen to the client: a stored state missing accepted edits is an error
+    public void flushForRead(Long screenId) {
+        flush(screenId);
+        reportFailure(screenId);
+    }
+
+    public void flushApplication(Long applicationId) {
+        Set<Long> applicationIds = new HashSet<>();
+        pending.forEach((screenId, entry) -> {
+            if (entry.applicationId.equals(applicationId)) {
+                applicationIds.add(write(screenId, entry));
+            }
+        });
+        applicationIds.forEach(this::touch);
+    }
+
+    // Each application is touched once per flush, however many of its screens were written
+    @Scheduled(fixedDelayString = "${app.autosave.flush-interval-ms:2000}")
+    @PreDestroy
+    public void flushAll() {
+        Set<Long> applicationIds = new HashSet<>();
+        pending.forEach((screenId, entry) -> applicationIds.add(write(screenId, entry)));
+        applicationIds.forEach(this::touch);
+    }
+
+    public void discard(Long screenId) {
+        failures.remove(screenId);
+        PendingLayout entry = pending.remove(screenId);
+        if (entry != null) {
+            entry.lock.lock();
+            try {
+                entry.flushed = true;
+            } finally {
+                entry.lock.unlock();
+            }
+        }
+    }
+
+    public void discardApplication(Long applicationId) {
+        pending.forEach((screenId, entry) -> {
+            if (entry.applicationId.equals(applicationId)) {
+                discard(screenId);
+            }
+        });
+    }
+
+    // Returns the application id when a layout was written
+    private Long write(Long screenId, PendingLayout entry) {
+        entry.lock.lock();
+        try {
+            if (entry.flushed) {
+                return null;
+            }
+            entry.flushed = true;
+            pending.remove(screenId, entry);
+            if (!entry.dirty) {
+                return null;
+            }
+            try {
+                String layoutJson = objectMapper.writeValueAsString(entry.layout);
+                screenService.writeBufferedLayout(screenId, layoutJson, entry.baseVersion);
+                return entry.applicationId;
+            } catch (Exception e) {
+                log.warn("Autosave for screen {} could not be written: {}", screenId, e.getMessage());
+                failures.put(screenId, e.getMessage());
+                return null;
+            }
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    private void reportFailure(Long screenId) {
+        String failure = failures.remove(screenId);
+        if (failure != null) {
+            throw new OptimisticLockingFailureException("Recent autosaved changes could not be saved: " + failure);
+        }
+    }
+
+    private void touch(Long applicationId) {
+        if (applicationId == null) {
+            return;
+        }
+        try {
+            applicationService.touchUpdatedAt(applicationId);
+        } catch (Exception e) {
+            log.warn("Failed to touch application {}: {}", applicationId, e.getMessage());
+        }
+    }
+
+    private JsonNode parse(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static class PendingLayout {
+
+        // not synchronized: the write runs a transaction while holding it, which would pin
+        // a virtual thread to its carrier for the whole database round trip
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Long applicationId;
+        private final Long baseVersion;
+        private JsonNode layout;
+        private boolean dirty;
+        private boolean flushed;
+
+        PendingLayout(Long applicationId, Long baseVersion, JsonNode layout) {
+            this.applicationId = applicationId;
+            this.baseVersion = baseVersion;
+            this.layout = layout;
+        }
+
+        // the single write at flush time bumps the stored version by exactly one
+        Long projectedVersion() {
+            return dirty ? baseVersion + 1 : baseVersion;
+        }
+    }
+}
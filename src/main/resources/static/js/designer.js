@@ -3,6 +3,12 @@ class ScreenDesigner {
         this.components = [];
         this.selectedComponent = null;
         this.currentScreenId = null;
+        this.currentScreenVersion = null;
+        // last layout the server confirmed; saves send a JSON Patch against it
+        this.savedLayout = null;
+        this.savedScreenName = null;
+        this.autosaveTimer = null;
+        this.autosaveInFlight = null;
         this.isDragging = false;
         this.dragOffset = { x: 0, y: 0 };
         this.isResizing = false;
@@ -144,9 +150,13 @@ class ScreenDesigner {
             if (e.target.classList.contains('load-screen')) {
                 const screenId = e.target.dataset.screenId;
                 this.loadScreen(screenId);
+            } else if (e.target.classList.contains('duplicate-screen')) {
+                this.duplicateScreen(e.target.dataset.screenId);
             } else if (e.target.classList.contains('delete-screen')) {
                 const screenId = e.target.dataset.screenId;
                 this.deleteScreen(screenId);
+            } else if (e.target.classList.contains('load-more-screens')) {
+                this.loadScreenList(e.target.dataset.cursor);
             }
         });
     }
@@ -223,6 +233,7 @@ class ScreenDesigner {
 
     markUnsaved() {
         this.hasUnsavedChanges = true;
+        this.scheduleAutosave();
     }
 
     
@@ -280,7 +291,10 @@ class ScreenDesigner {
         if (!this.selectedComponent) return;
 
         const property = propertyId.replace('component', '').toLowerCase();
-        this.selectedComponent[property] = value;
+        // geometry comes from text inputs; store it as a number once it parses as one
+        const number = parseFloat(value);
+        this.selectedComponent[property] = ['x', 'y', 'width', 'height'].includes(property) && !Number.isNaN(number) ?
+            number : value;
 
         const element = document.querySelector(`[data-component-id="${this.selectedComponent.id}"]`);
         if (element) {
@@ -431,13 +445,26 @@ class ScreenDesigner {
             }
         }
 
+        // an explicit save supersedes the pending autosave, but must follow one in flight
+        clearTimeout(this.autosaveTimer);
+        if (this.autosaveInFlight) {
+            await this.autosaveInFlight;
+        }
+
         this.syncComponentsFromDOM();
 
-        const layoutJson = JSON.stringify({
-            components: this.components,
-            backgroundColor: this.screenBackgroundColor,
-            backgroundImage: this.screenBackgroundImage
-        });
+        const layoutJson = this.buildLayoutJson();
+        const layout = JSON.parse(layoutJson);
+
+        // a renamed screen still goes through PUT; otherwise only send the delta
+        if (this.currentScreenId && this.currentScreenVersion != null && this.savedLayout &&
+            screenName === this.savedScreenName) {
+            const patch = JSON.stringify(this.diffJson(this.savedLayout, layout));
+            if (patch.length < layoutJson.length) {
+                return this.patchScreen(patch, layout, screenName);
+            }
+        }
+
         const screenData = {
             applicationId: window.applicationData.id,
             name: screenName,
@@ -452,17 +479,36 @@ class ScreenDesigner {
 
             const method = this.currentScreenId ? 'PUT' : 'POST';
 
+            const headers = {
+                'Content-Type': 'application/json'
+            };
+            // only overwrite the version this designer loaded
+            if (method === 'PUT' && this.currentScreenVersion != null) {
+                headers['If-Match'] = `"${this.currentScreenVersion}"`;
+            }
+
             const response = await fetch(url, {
                 method: method,
-                headers: {
-                    'Content-Type': 'application/json'
-                },
+                headers: headers,
                 body: JSON.stringify(screenData)
             });
 
+            if (response.status === 412) {
+                Swal.fire({
+                    icon: 'error',
+                    title: 'Screen Changed',
+                    text: 'This screen was changed by someone else. Reload it and try again.',
+                    confirmButtonText: 'OK'
+                });
+                return false;
+            }
+
             if (response.ok) {
                 const savedScreen = await response.json();
                 this.currentScreenId = savedScreen.id;
+                this.currentScreenVersion = savedScreen.version;
+                this.savedLayout = JSON.parse(savedScreen.layoutJson);
+                this.savedScreenName = savedScreen.name;
 
                 if (method === 'POST') {
                     Swal.fire({
@@ -523,11 +569,172 @@ class ScreenDesigner {
         }
     }
 
-    
+    async patchScreen(patch, layout, screenName) {
+        try {
+            const response = await fetch(`/api/screens/${this.currentScreenId}`, {
+                method: 'PATCH',
+                headers: {
+                    'Content-Type': 'application/json-patch+json',
+                    'If-Match': `"${this.currentScreenVersion}"`
+                },
+                body: patch
+            });
+
+            if (response.status === 412) {
+                Swal.fire({
+                    icon: 'error',
+                    title: 'Screen Changed',
+                    text: 'This screen was changed by someone else. Reload it and try again.',
+                    confirmButtonText: 'OK'
+                });
+                return false;
+            }
+
+            if (!response.ok) {
+                Swal.fire({
+                    icon: 'error',
+                    title: 'Error Saving Screen',
+                    text: await response.text(),
+                    confirmButtonText: 'OK'
+                });
+                return false;
+            }
+
+            const result = await response.json();
+            this.currentScreenVersion = result.version;
+            this.savedLayout = layout;
+
+            Swal.fire({
+                icon: 'success',
+                title: 'Screen Updated!',
+                text: `Screen "${screenName}" updated successfully!`,
+                confirmButtonText: 'OK',
+                timer: 2000,
+                timerProgressBar: true
+            });
+            this.loadScreenList();
+            return true;
+        } catch (error) {
+            console.error('Error saving screen:', error);
+            Swal.fire({
+                icon: 'error',
+                title: 'Error Saving Screen',
+                text: 'Error saving screen: ' + error.message,
+                confirmButtonText: 'OK'
+            });
+            return false;
+        }
+    }
+
+    buildLayoutJson() {
+        return JSON.stringify({
+            components: this.components,
+            backgroundColor: this.screenBackgroundColor,
+            backgroundImage: this.screenBackgroundImage
+        });
+    }
+
+    // Debounced, so a burst of edits becomes a single request once the user pauses
+    scheduleAutosave() {
+        const toggle = document.getElementById('autosaveToggle');
+        if (!toggle || !toggle.checked || !this.currentScreenId ||
+            this.currentScreenVersion == null || !this.savedLayout) {
+            return;
+        }
+        clearTimeout(this.autosaveTimer);
+        this.autosaveTimer = setTimeout(() => this.autosave(), 1500);
+    }
+
+    async autosave() {
+        if (this.autosaveInFlight) {
+            // the next attempt picks up whatever changed meanwhile
+            this.scheduleAutosave();
+            return;
+        }
+
+        this.syncComponentsFromDOM();
+        const layout = JSON.parse(this.buildLayoutJson());
+        const ops = this.diffJson(this.savedLayout, layout);
+        if (ops.length === 0) {
+            return;
+        }
+
+        const screenId = this.currentScreenId;
+        this.autosaveInFlight = fetch(`/api/screens/${screenId}/autosave`, {
+            method: 'PATCH',
+            headers: {
+                'Content-Type': 'application/json-patch+json',
+                'If-Match': `"${this.currentScreenVersion}"`
+            },
+            body: JSON.stringify(ops)
+        }).then(async response => {
+            if (screenId !== this.currentScreenId) {
+                return;
+            }
+            if (response.status === 412) {
+                document.getElementById('autosaveToggle').checked = false;
+                Swal.fire({
+                    icon: 'error',
+                    title: 'Autosave Stopped',
+                    text: (await response.text()) || 'This screen was changed by someone else. Reload it to continue editing.',
+                    confirmButtonText: 'OK'
+                });
+            } else if (response.ok) {
+                const result = await response.json();
+                this.currentScreenVersion = result.version;
+                this.savedLayout = layout;
+            }
+        }).catch(error => {
+            console.error('Autosave failed:', error);
+        }).finally(() => {
+            this.autosaveInFlight = null;
+        });
+        await this.autosaveInFlight;
+    }
+
+    // RFC 6902 operations turning `before` into `after`; array items are compared by position
+    diffJson(before, after, path = '', ops = []) {
+        const isObject = value => value !== null && typeof value === 'object' && !Array.isArray(value);
+
+        if (Array.isArray(before) && Array.isArray(after)) {
+            const common = Math.min(before.length, after.length);
+            for (let i = 0; i < common; i++) {
+                this.diffJson(before[i], after[i], `${path}/${i}`, ops);
+            }
+            for (let i = before.length - 1; i >= common; i--) {
+                ops.push({ op: 'remove', path: `${path}/${i}` });
+            }
+            for (let i = common; i < after.length; i++) {
+                ops.push({ op: 'add', path: `${path}/-`, value: after[i] });
+            }
+        } else if (isObject(before) && isObject(after)) {
+            const escape = key => key.replace(/~/g, '~0').replace(/\//g, '~1');
+            Object.keys(before).forEach(key => {
+                if (!(key in after)) {
+                    ops.push({ op: 'remove', path: `${path}/${escape(key)}` });
+                }
+            });
+            Object.keys(after).forEach(key => {
+                if (key in before) {
+                    this.diffJson(before[key], after[key], `${path}/${escape(key)}`, ops);
+                } else {
+                    ops.push({ op: 'add', path: `${path}/${escape(key)}`, value: after[key] });
+                }
+            });
+        } else if (JSON.stringify(before) !== JSON.stringify(after)) {
+            ops.push({ op: 'replace', path: path, value: after });
+        }
+        return ops;
+    }
 
     async loadScreen(screenId) {
         try {
             const response = await fetch(`/api/screens/${screenId}`);
+            if (response.status === 409) {
+                // buffered edits were lost; reported once, so loading again gives the stored screen
+                this.showAutosaveLost(await response.text());
+                return this.loadScreen(screenId);
+            }
             if (response.ok) {
                 const screen = await response.json();
                 this.loadScreenLayout(screen);
@@ -569,6 +776,9 @@ class ScreenDesigner {
 
             this.components = components;
             this.currentScreenId = screen.id;
+            this.currentScreenVersion = screen.version != null && screen.version !== '' ? screen.version : null;
+            this.savedLayout = parsed;
+            this.savedScreenName = screen.name;
 
             this.updateCurrentScreenName(screen.name);
 
@@ -619,10 +829,22 @@ class ScreenDesigner {
 
     loadExistingScreen() {
         if (window.currentScreenData && window.currentScreenData.id) {
+            if (window.currentScreenData.autosaveError) {
+                this.showAutosaveLost();
+            }
             this.loadScreenLayout(window.currentScreenData);
         }
     }
 
+    showAutosaveLost(message) {
+        Swal.fire({
+            icon: 'warning',
+            title: 'Autosave Lost',
+            text: message || 'Recent autosaved changes could not be saved. The screen shows its last stored version.',
+            confirmButtonText: 'OK'
+        });
+    }
+
     showNewScreenModal() {
         document.getElementById('newScreenModal').style.display = 'block';
     }
@@ -675,6 +897,8 @@ class ScreenDesigner {
         // Start from a clean slate
         this.clearComponents();
         this.currentScreenId = null;
+        this.currentScreenVersion = null;
+        this.savedLayout = null;
         this.closeNewScreenModal();
 
         // Reset background state to a blank screen
@@ -702,17 +926,46 @@ class ScreenDesigner {
 
     async screenNameExists(screenName) {
         try {
-            const response = await fetch(`/api/screens/application/${window.applicationData.id}`);
-            if (response.ok) {
-                const screens = await response.json();
-                return screens.some(screen => screen.name.toLowerCase() === screenName.toLowerCase());
-            }
+            const params = new URLSearchParams({ applicationId: window.applicationData.id, name: screenName });
+            const response = await fetch(`/api/screens/name-available?${params}`, { method: 'HEAD' });
+            return response.status === 409;
         } catch (error) {
             console.error('Error checking screen names:', error);
         }
         return false;
     }
 
+    // The copy is made on the server; the layout is not sent back and forth
+    async duplicateScreen(screenId) {
+        try {
+            const response = await fetch(`/api/screens/${screenId}/duplicate`, {
+                method: 'POST'
+            });
+
+            if (response.ok) {
+                const copy = await response.json();
+                Swal.fire({
+                    icon: 'success',
+                    title: 'Screen Duplicated!',
+                    text: `Created "${copy.name}"`,
+                    timer: 2000,
+                    timerProgressBar: true,
+                    showConfirmButton: false
+                });
+                this.loadScreenList();
+            } else {
+                const error = await response.text();
+                Swal.fire({
+                    icon: 'error',
+                    title: 'Duplicate Failed',
+                    text: error
+                });
+            }
+        } catch (error) {
+            console.error('Error duplicating screen:', error);
+        }
+    }
+
     async deleteScreen(screenId) {
         const result = await Swal.fire({
             icon: 'warning',
@@ -763,16 +1016,18 @@ class ScreenDesigner {
         }
     }
 
-    async loadScreenList() {
+    // Without a cursor the list restarts at the newest screen; with one the next page is appended
+    async loadScreenList(cursor = null) {
         try {
             console.log('Loading screen list for application:', window.applicationData.id);
-            const response = await fetch(`/api/screens/application/${window.applicationData.id}`);
+            const query = cursor ? `?cursor=${encodeURIComponent(cursor)}` : '';
+            const response = await fetch(`/api/screens/application/${window.applicationData.id}/summary${query}`);
             console.log('Response status:', response.status);
 
             if (response.ok) {
-                const screens = await response.json();
-                console.log('Screens loaded:', screens);
-                this.renderScreenList(screens);
+                const page = await response.json();
+                console.log('Screens loaded:', page.items);
+                this.renderScreenList(page.items, page.nextCursor, !!cursor);
             } else {
                 const errorText = await response.text();
                 console.error('Error response:', errorText);
@@ -782,13 +1037,19 @@ class ScreenDesigner {
         }
     }
 
-    renderScreenList(screens) {
+    renderScreenList(screens, nextCursor = null, append = false) {
         const screenList = document.getElementById('screenList');
         if (!screenList) return;
 
-        screenList.innerHTML = '';
+        const loadMore = screenList.querySelector('.load-more-screens');
+        if (loadMore) {
+            loadMore.remove();
+        }
+        if (!append) {
+            screenList.innerHTML = '';
+        }
 
-        if (screens.length === 0) {
+        if (screens.length === 0 && !append) {
             screenList.innerHTML = '<p class="no-screens">No screens yet</p>';
             return;
         }
@@ -796,15 +1057,28 @@ class ScreenDesigner {
         screens.forEach(screen => {
             const screenItem = document.createElement('div');
             screenItem.className = 'screen-item';
+            // previews are rendered server-side after a save and may not exist yet
+            const thumbnail = screen.screenImagePath ?
+                `<img class="screen-thumbnail" src="${screen.screenImagePath}" alt="" loading="lazy">` : '';
             screenItem.innerHTML = `
+                ${thumbnail}
                 <span class="screen-name">${screen.name}</span>
                 <div class="screen-actions">
                     <button class="btn btn-small btn-primary load-screen" data-screen-id="${screen.id}">Load</button>
+                    <button class="btn btn-small btn-secondary duplicate-screen" data-screen-id="${screen.id}">Duplicate</button>
                     <button class="btn btn-small btn-danger delete-screen" data-screen-id="${screen.id}">Delete</button>
                 </div>
             `;
             screenList.appendChild(screenItem);
         });
+
+        if (nextCursor) {
+            const button = document.createElement('button');
+            button.className = 'btn btn-small btn-secondary load-more-screens';
+            button.dataset.cursor = nextCursor;
+            button.textContent = 'Load more';
+            screenList.appendChild(button);
+        }
     }
 
     updateCurrentScreenName(name) {
@@ -947,6 +1221,30 @@ class ScreenDesigner {
             return;
         }
 
+        this.uploadBackgroundImage(file);
+    }
+
+    // Upload to the asset store so the layout only carries a URL
+    async uploadBackgroundImage(file) {
+        try {
+            const formData = new FormData();
+            formData.append('file', file);
+            const response = await fetch('/api/upload/image', {
+                method: 'POST',
+                body: formData
+            });
+            if (response.ok) {
+                this.screenBackgroundImage = await response.text();
+                this.updateBackgroundPreview();
+                this.markUnsaved();
+                return;
+            }
+            console.error('Error uploading background image:', await response.text());
+        } catch (error) {
+            console.error('Error uploading background image:', error);
+        }
+
+        // fall back to an inline data URL; the server extracts it on save
         const reader = new FileReader();
         reader.onload = (e) => {
             this.screenBackgroundImage = e.target.result;
@@ -1380,6 +1678,7 @@ class ScreenDesigner {
         const trackChanges = () => {
             hasUnsavedChanges = true;
             this.hasUnsavedChanges = true;
+            this.scheduleAutosave();
         };
 
         const resetChanges = () => {
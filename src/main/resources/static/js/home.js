@@ -11,6 +11,18 @@ document.addEventListener('DOMContentLoaded', function () {
         createAppModal.style.display = 'block';
     });
 
+    // Import an export ZIP or an NDJSON file as a new application
+    const importAppFile = document.getElementById('importAppFile');
+    document.getElementById('importAppBtn').addEventListener('click', function () {
+        importAppFile.click();
+    });
+    importAppFile.addEventListener('change', function () {
+        if (importAppFile.files.length > 0) {
+            importApplication(importAppFile.files[0]);
+            importAppFile.value = '';
+        }
+    });
+
     // Close modals when clicking on X
     closeBtns.forEach(closeBtn => {
         closeBtn.addEventListener('click', function () {
@@ -53,6 +65,8 @@ document.addEventListener('DOMContentLoaded', function () {
         } else if (e.target.classList.contains('edit-app')) {
             const appId = e.target.dataset.appId;
             openEditModal(appId);
+        } else if (e.target.classList.contains('duplicate-app')) {
+            duplicateApplication(e.target.dataset.appId);
         } else if (e.target.classList.contains('delete-app')) {
             const appId = e.target.dataset.appId;
             deleteApplication(appId);
@@ -76,14 +90,12 @@ function setupParsleyValidation() {
     }
 }
 
-// Check if application name already exists
+// Check if application name already exists (server answers 409 when taken)
 async function applicationNameExists(appName) {
     try {
-        const response = await fetch('/api/applications');
-        if (response.ok) {
-            const applications = await response.json();
-            return applications.some(app => app.name.toLowerCase() === appName.toLowerCase());
-        }
+        const params = new URLSearchParams({ name: appName });
+        const response = await fetch(`/api/applications/name-available?${params}`, { method: 'HEAD' });
+        return response.status === 409;
     } catch (error) {
         console.error('Error checking application names:', error);
     }
@@ -92,14 +104,9 @@ async function applicationNameExists(appName) {
 
 async function applicationNameExistsForUpdate(appName, currentAppId) {
     try {
-        const response = await fetch('/api/applications');
-        if (response.ok) {
-            const applications = await response.json();
-            return applications.some(app =>
-                app.name.toLowerCase() === appName.toLowerCase() &&
-                app.id.toString() !== currentAppId.toString()
-            );
-        }
+        const params = new URLSearchParams({ name: appName, excludeId: currentAppId });
+        const response = await fetch(`/api/applications/name-available?${params}`, { method: 'HEAD' });
+        return response.status === 409;
     } catch (error) {
         console.error('Error checking application names:', error);
     }
@@ -175,11 +182,60 @@ async function createApplication() {
     }
 }
 
+// The file is sent as the raw request body so the server can stream it
+async function importApplication(file) {
+    const isZip = file.name.toLowerCase().endsWith('.zip');
+    try {
+        const response = await fetch('/api/applications/import', {
+            method: 'POST',
+            headers: {
+                'Content-Type': isZip ? 'application/zip' : 'application/x-ndjson'
+            },
+            body: file
+        });
+
+        if (response.ok) {
+            const result = await response.json();
+            showNotification(`Imported ${result.screens} screen(s)`, 'success');
+            setTimeout(() => {
+                window.location.reload();
+            }, 1000);
+        } else {
+            const error = await response.text();
+            showNotification(error, 'error');
+        }
+    } catch (error) {
+        showNotification('Error importing application: ' + error.message, 'error');
+    }
+}
+
 // Open application
 function openApplication(appId) {
     window.location.href = `/designer/${appId}`;
 }
 
+// Copies the application and its screens on the server
+async function duplicateApplication(appId) {
+    try {
+        const response = await fetch(`/api/applications/${appId}/duplicate`, {
+            method: 'POST'
+        });
+
+        if (response.ok) {
+            const application = await response.json();
+            showNotification(`Created "${application.name}"`, 'success');
+            setTimeout(() => {
+                window.location.reload();
+            }, 1000);
+        } else {
+            const error = await response.text();
+            showNotification('Error duplicating application: ' + error, 'error');
+        }
+    } catch (error) {
+        showNotification('Error duplicating application: ' + error.message, 'error');
+    }
+}
+
 async function deleteApplication(appId) {
     const result = await Swal.fire({
         title: 'Delete Application',
@@ -225,6 +281,7 @@ async function openEditModal(appId) {
 
             document.getElementById('editAppId').value = app.id;
             document.getElementById('editAppName').value = app.name;
+            document.getElementById('editAppVersion').value = app.version;
 
             // Show current icon preview
             const currentIconPreview = document.getElementById('currentIconPreview');
@@ -293,15 +350,23 @@ async function updateApplication() {
             appData.iconPath = iconPath;
         }
 
+        const headers = {
+            'Content-Type': 'application/json',
+        };
+        const version = formData.get('version');
+        if (version) {
+            headers['If-Match'] = `"${version}"`;
+        }
+
         const response = await fetch(`/api/applications/${appId}`, {
             method: 'PUT',
-            headers: {
-                'Content-Type': 'application/json',
-            },
+            headers: headers,
             body: JSON.stringify(appData)
         });
 
-        if (response.ok) {
+        if (response.status === 412) {
+            showNotification('This application was changed by someone else. Reopen it and try again.', 'error');
+        } else if (response.ok) {
             showNotification('Application updated successfully!', 'success');
             closeEditModal();
             // Reload page to show updated application
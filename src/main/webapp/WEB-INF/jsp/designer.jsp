@@ -7,8 +7,8 @@
             <meta charset="UTF-8">
             <meta name="viewport" content="width=device-width, initial-scale=1.0">
             <title>Mobile Screen Designer - ${application.name}</title>
-            <link rel="stylesheet" href="/css/style.css?v=3">
-            <link rel="stylesheet" href="/css/designer.css?v=3">
+            <link rel="stylesheet" href="<c:url value='/css/style.css'/>">
+            <link rel="stylesheet" href="<c:url value='/css/designer.css'/>">
             <script src="https://cdn.jsdelivr.net/npm/sweetalert2@11"></script>
             <script src="https://cdnjs.cloudflare.com/ajax/libs/parsley.js/2.9.2/parsley.min.js"></script>
         </head>
@@ -33,6 +33,7 @@
                     </div>
                     <div class="header-actions">
                         <span class="user-info">Welcome, ${sessionScope.username}!</span>
+                        <label class="autosave-toggle"><input type="checkbox" id="autosaveToggle" checked> Autosave</label>
                         <button id="saveScreenBtn" class="btn btn-primary">Save Screen</button>
                         <a href="/" class="btn btn-secondary">Back to Home</a>
                         <a href="/logout" class="btn btn-secondary">Logout</a>
@@ -203,6 +204,8 @@
                     window.currentScreenData = {
                         id: '${screen.id}',
                         name: '${screen.name}',
+                        version: '${screen.version}',
+                        autosaveError: ${autosaveError == true},
                         layoutJson: '${screen.layoutJson}'
                     };
                 </c:if>
@@ -214,7 +217,7 @@
                     };
                 </c:if>
             </script>
-            <script src="/js/designer.js?v=3"></script>
+            <script src="<c:url value='/js/designer.js'/>"></script>
         </body>
 
         </html>
@@ -7,7 +7,7 @@
             <meta charset="UTF-8">
             <meta name="viewport" content="width=device-width, initial-scale=1.0">
             <title>Mobile Screen Designer - Home</title>
-            <link rel="stylesheet" href="/css/style.css">
+            <link rel="stylesheet" href="<c:url value='/css/style.css'/>">
             <script src="https://cdnjs.cloudflare.com/ajax/libs/parsley.js/2.9.2/parsley.min.js"></script>
             <script src="https://cdnjs.cloudflare.com/ajax/libs/moment.js/2.29.4/moment.min.js"></script>
             <script src="https://cdn.jsdelivr.net/npm/sweetalert2@11"></script>
@@ -29,8 +29,19 @@
 
                 <div class="actions">
                     <button id="createAppBtn" class="btn btn-primary">Create New Application</button>
+                    <button id="importAppBtn" class="btn btn-secondary">Import</button>
+                    <input type="file" id="importAppFile" accept=".zip,.ndjson,.jsonl" style="display: none;">
                 </div>
 
+                <form class="app-filter" method="get" action="<c:url value='/'/>">
+                    <input type="search" name="q" value="<c:out value='${param.q}'/>" placeholder="Filter by name...">
+                    <select name="sort">
+                        <option value="updated">Recently updated</option>
+                        <option value="created" ${sort == 'created' ? 'selected' : ''}>Recently created</option>
+                    </select>
+                    <button type="submit" class="btn btn-secondary">Apply</button>
+                </form>
+
                 <div class="applications-grid">
                     <c:forEach var="app" items="${applications}">
                         <div class="app-card" data-app-id="${app.id}">
@@ -49,18 +60,44 @@
                             <div class="app-actions">
                                 <button class="btn btn-secondary open-app" data-app-id="${app.id}">Open</button>
                                 <button class="btn btn-info edit-app" data-app-id="${app.id}">Edit</button>
+                                <button class="btn btn-secondary duplicate-app" data-app-id="${app.id}">Duplicate</button>
+                                <a class="btn btn-secondary" href="<c:url value='/api/applications/${app.id}/export.zip'/>">Export</a>
                                 <button class="btn btn-danger delete-app" data-app-id="${app.id}">Delete</button>
                             </div>
                         </div>
                     </c:forEach>
                 </div>
 
-                <c:if test="${empty applications}">
+                <div class="pagination">
+                    <c:if test="${not empty param.cursor}">
+                        <c:url var="firstPageUrl" value="/">
+                            <c:param name="q" value="${param.q}"/>
+                            <c:param name="sort" value="${sort}"/>
+                        </c:url>
+                        <a href="${firstPageUrl}" class="btn btn-secondary">First page</a>
+                    </c:if>
+                    <c:if test="${not empty nextCursor}">
+                        <c:url var="nextPageUrl" value="/">
+                            <c:param name="q" value="${param.q}"/>
+                            <c:param name="sort" value="${sort}"/>
+                            <c:param name="cursor" value="${nextCursor}"/>
+                        </c:url>
+                        <a href="${nextPageUrl}" class="btn btn-secondary">Next page</a>
+                    </c:if>
+                </div>
+
+                <c:if test="${empty applications and empty param.q and empty param.cursor}">
                     <div class="empty-state">
                         <h2>No Applications Yet</h2>
                         <p>Create your first application to get started!</p>
                     </div>
                 </c:if>
+                <c:if test="${empty applications and not empty param.q}">
+                    <div class="empty-state">
+                        <h2>No Matching Applications</h2>
+                        <p>No application name starts with "<c:out value='${param.q}'/>".</p>
+                    </div>
+                </c:if>
             </div>
 
             <div id="createAppModal" class="modal">
@@ -97,6 +134,7 @@
                     <h2>Edit Application</h2>
                     <form id="editAppForm" enctype="multipart/form-data">
                         <input type="hidden" id="editAppId" name="id">
+                        <input type="hidden" id="editAppVersion" name="version">
                         <div class="form-group">
                             <label for="editAppName">Application Name:</label>
                             <input type="text" id="editAppName" name="name" required data-parsley-required="true"
@@ -120,7 +158,7 @@
                 </div>
             </div>
 
-            <script src="/js/home.js"></script>
+            <script src="<c:url value='/js/home.js'/>"></script>
             <script>
                 document.addEventListener('DOMContentLoaded', function () {
                     document.querySelectorAll('.app-updated').forEach(function (el) {
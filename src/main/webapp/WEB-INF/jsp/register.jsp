@@ -7,7 +7,7 @@
             <meta charset="UTF-8">
             <meta name="viewport" content="width=device-width, initial-scale=1.0">
             <title>Register - Mobile Screen Designer</title>
-            <link rel="stylesheet" href="/css/style.css">
+            <link rel="stylesheet" href="<c:url value='/css/style.css'/>">
             <script src="https://cdnjs.cloudflare.com/ajax/libs/parsley.js/2.9.2/parsley.min.js"></script>
             <script src="https://cdn.jsdelivr.net/npm/sweetalert2@11"></script>
             <style>
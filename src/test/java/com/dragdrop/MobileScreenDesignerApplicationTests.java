@@ -3,7 +3,8 @@ package com.dragdrop;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// no management server: port 8081 may be taken by a running instance
+@SpringBootTest(properties = "management.server.port=-1")
 class MobileScreenDesignerApplicationTests {
 
     @Test
@@ -0,0 +1,164 @@
+package com.dragdrop.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Capacity baseline: boots the application on a random port against a throwaway PostgreSQL,
+// seeds it, and runs concurrent designer sessions against it over HTTP. Prints p50/p95/p99
+// and throughput per endpoint and writes them to loadtest.report. Run with: mvn -Ploadtest test
+@Tag("loadtest")
+@ExtendWith(LoadTestDatabase.class)
+@ActiveProfiles("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext
+class DesignerLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(DesignerLoadTest.class);
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws Exception {
+        LoadTestDatabase.start(registry);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${loadtest.concurrency}")
+    private int concurrency;
+
+    @Value("${loadtest.applications-per-user}")
+    private int applicationsPerUser;
+
+    @Value("${loadtest.screens-per-application}")
+    private int screensPerApplication;
+
+    @Value("${loadtest.components-per-screen}")
+    private int componentsPerScreen;
+
+    @Value("${loadtest.saves-per-visit}")
+    private int savesPerVisit;
+
+    @Value("${loadtest.think-time-ms}")
+    private long thinkTimeMillis;
+
+    @Value("${loadtest.upload-bytes}")
+    private int uploadBytes;
+
+    @Value("${loadtest.upload-bytes-per-second}")
+    private int uploadBytesPerSecond;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @Value("${loadtest.warmup-seconds}")
+    private int warmupSeconds;
+
+    @Value("${loadtest.duration-seconds}")
+    private int durationSeconds;
+
+    @Value("${loadtest.report}")
+    private String reportPath;
+
+    @Test
+    void designerWorkload() throws Exception {
+        new LoadTestSeeder(jdbcTemplate, objectMapper).seed(concurrency, applicationsPerUser, screensPerApplication,
+                componentsPerScreen, passwordEncoder.encode(LoadTestSeeder.PASSWORD));
+
+        // Sessions sign in one after another before the clock starts. A burst of concurrent bcrypt
+        // checks is not the workload, and on virtual threads it starves the requests holding connections
+        LoadReport report = new LoadReport();
+        List<DesignerSession> sessions = new ArrayList<>();
+        for (int user = 0; user < concurrency; user++) {
+            DesignerSession session = new DesignerSession("http://localhost:" + port, LoadTestSeeder.username(user),
+                    report, objectMapper, savesPerVisit, thinkTimeMillis, uploadBytes, uploadBytesPerSecond);
+            session.login();
+            sessions.add(session);
+        }
+
+        long start = System.nanoTime();
+        report.start(start + TimeUnit.SECONDS.toNanos(warmupSeconds));
+        long end = start + TimeUnit.SECONDS.toNanos(warmupSeconds + durationSeconds);
+        AtomicLong failedVisits = new AtomicLong();
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        List<Future<?>> running = new ArrayList<>();
+        for (DesignerSession session : sessions) {
+            running.add(executor.submit(() -> {
+                while (System.nanoTime() < end) {
+                    try {
+                        session.visit();
+                    } catch (IOException | RuntimeException e) {
+                        failedVisits.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> session : running) {
+            session.get();
+        }
+        report.stop(System.nanoTime());
+        executor.shutdown();
+
+        // the setting has no effect before Java 21
+        boolean virtualThreads = virtualThreadsEnabled && Runtime.version().feature() >= 21;
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("concurrency", concurrency);
+        settings.put("applicationsPerUser", applicationsPerUser);
+        settings.put("screensPerApplication", screensPerApplication);
+        settings.put("componentsPerScreen", componentsPerScreen);
+        settings.put("savesPerVisit", savesPerVisit);
+        settings.put("thinkTimeMillis", thinkTimeMillis);
+        settings.put("uploadBytes", uploadBytes);
+        settings.put("uploadBytesPerSecond", uploadBytesPerSecond);
+        settings.put("virtualThreads", virtualThreads);
+        settings.put("warmupSeconds", warmupSeconds);
+        settings.put("durationSeconds", durationSeconds);
+        report.writeJson(Path.of(reportPath), settings, objectMapper);
+        log.info("Load test, {} sessions for {} s, {} threads:\n{}", concurrency, durationSeconds,
+                virtualThreads ? "virtual" : "platform", report.table());
+
+        assertTrue(report.requests() > 0, "no requests completed");
+        assertTrue(report.errors() * 100 <= report.requests(),
+                report.errors() + " of " + report.requests() + " requests failed");
+        assertTrue(failedVisits.get() * 100 <= report.requests(), failedVisits.get() + " visits failed");
+    }
+}
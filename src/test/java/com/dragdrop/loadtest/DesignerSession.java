@@ -0,0 +1,207 @@
+package com.dragdrop.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+// One signed-in user working in the designer: list apps, open one, then open and save a few
+// screens and upload an icon. Every request is timed into the report
+class DesignerSession {
+
+    private static final String BOUNDARY = "----loadtest-boundary";
+
+    private final String baseUrl;
+    private final String username;
+    private final LoadReport report;
+    private final ObjectMapper objectMapper;
+    private final int savesPerVisit;
+    private final long thinkTimeMillis;
+    private final int uploadBytes;
+    private final int uploadBytesPerSecond;
+    private final Random random;
+    private final HttpClient client;
+
+    DesignerSession(String baseUrl, String username, LoadReport report, ObjectMapper objectMapper,
+                    int savesPerVisit, long thinkTimeMillis, int uploadBytes, int uploadBytesPerSecond) {
+        this.baseUrl = baseUrl;
+        this.username = username;
+        this.report = report;
+        this.objectMapper = objectMapper;
+        this.savesPerVisit = savesPerVisit;
+        this.thinkTimeMillis = thinkTimeMillis;
+        this.uploadBytes = uploadBytes;
+        this.uploadBytesPerSecond = uploadBytesPerSecond;
+        this.random = new Random(username.hashCode());
+        this.client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    // Form login; not part of the measured workload
+    void login() throws IOException, InterruptedException {
+        String form = "username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(LoadTestSeeder.PASSWORD, StandardCharsets.UTF_8);
+        HttpResponse<String> response = client.send(request("/login")
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form)).build(), HttpResponse.BodyHandlers.ofString());
+        String location = response.headers().firstValue("Location").orElse("");
+        if (response.statusCode() != 302 || location.contains("error")) {
+            throw new IllegalStateException("Login failed for " + username + ": " + response.statusCode() + " " + location);
+        }
+    }
+
+    void visit() throws IOException, InterruptedException {
+        JsonNode applications = json(send("GET /api/applications", request("/api/applications").GET()));
+        long applicationId = pick(applications.path("items")).path("id").asLong();
+
+        send("GET /designer/{id}", request("/designer/" + applicationId).GET());
+        JsonNode screens = json(send("GET /api/screens/application/{id}/summary",
+                request("/api/screens/application/" + applicationId + "/summary").GET()));
+
+        for (int i = 0; i < savesPerVisit; i++) {
+            long screenId = pick(screens.path("items")).path("id").asLong();
+            JsonNode screen = json(send("GET /api/screens/{id}", request("/api/screens/" + screenId).GET()));
+            if (screen.isMissingNode()) {
+                continue;
+            }
+
+            ObjectNode body = objectMapper.createObjectNode();
+            body.put("name", screen.path("name").asText());
+            body.put("layoutJson", moveComponent(screen.path("layoutJson").asText()));
+            send("PUT /api/screens/{id}", request("/api/screens/" + screenId)
+                    .header("Content-Type", "application/json")
+                    .header("If-Match", "\"" + screen.path("version").asLong() + "\"")
+                    .PUT(HttpRequest.BodyPublishers.ofString(body.toString())));
+        }
+
+        send("POST /api/upload/icon", request("/api/upload/icon")
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(uploadBody(iconUpload())));
+    }
+
+    // Bulk import of an NDJSON body into a new application
+    void importApplication(String name, byte[] ndjson) throws IOException, InterruptedException {
+        HttpResponse<String> response = send("POST /api/applications/import", request("/api/applications/import?name="
+                + URLEncoder.encode(name, StandardCharsets.UTF_8))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(ndjson)));
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Import failed: " + response.statusCode() + " " + response.body());
+        }
+    }
+
+    private HttpResponse<String> send(String endpoint, HttpRequest.Builder builder)
+            throws IOException, InterruptedException {
+        if (thinkTimeMillis > 0) {
+            Thread.sleep(thinkTimeMillis);
+        }
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+            report.record(endpoint, start, System.nanoTime(), response.statusCode() / 100 == 2);
+            return response;
+        } catch (IOException e) {
+            report.record(endpoint, start, System.nanoTime(), false);
+            throw e;
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path));
+    }
+
+    private JsonNode json(HttpResponse<String> response) throws IOException {
+        return response.statusCode() / 100 == 2
+                ? objectMapper.readTree(response.body())
+                : objectMapper.missingNode();
+    }
+
+    private JsonNode pick(JsonNode items) {
+        if (items.size() == 0) {
+            throw new IllegalStateException(username + " has nothing to open");
+        }
+        return items.get(random.nextInt(items.size()));
+    }
+
+    // The edit a drag makes: one component moves
+    private String moveComponent(String layoutJson) throws IOException {
+        JsonNode layout = objectMapper.readTree(layoutJson);
+        JsonNode components = layout.path("components");
+        if (components.size() > 0) {
+            ObjectNode component = (ObjectNode) components.get(random.nextInt(components.size()));
+            component.put("x", random.nextInt(300));
+            component.put("y", random.nextInt(560));
+        }
+        return layout.toString();
+    }
+
+    // A slow client holds the request open while its body trickles in
+    private HttpRequest.BodyPublisher uploadBody(byte[] body) {
+        if (uploadBytesPerSecond <= 0) {
+            return HttpRequest.BodyPublishers.ofByteArray(body);
+        }
+        return HttpRequest.BodyPublishers.ofInputStream(() -> new ThrottledInputStream(body, uploadBytesPerSecond));
+    }
+
+    // An icon with fresh content, so each upload stores a new asset
+    private byte[] iconUpload() throws IOException {
+        byte[] icon = new byte[uploadBytes];
+        random.nextBytes(icon);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(icon.length + 256);
+        out.write(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"icon.png\"\r\n"
+                + "Content-Type: image/png\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.write(icon);
+        out.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        return out.toByteArray();
+    }
+
+    // Hands out a tenth of a second's worth of bytes per read
+    private static class ThrottledInputStream extends InputStream {
+
+        private final byte[] data;
+        private final int chunk;
+        private int position;
+
+        ThrottledInputStream(byte[] data, int bytesPerSecond) {
+            this.data = data;
+            this.chunk = Math.max(bytesPerSecond / 10, 1);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (position == data.length) {
+                return -1;
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Upload interrupted", e);
+            }
+            int count = Math.min(Math.min(length, chunk), data.length - position);
+            System.arraycopy(data, position, buffer, offset, count);
+            position += count;
+            return count;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.dragdrop.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.dragdrop.service.ScreenThumbnailService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Bulk import cost: one user imports the same NDJSON application again and again, one import at
+// a time, and the time and JDBC statements per import are recorded. The JDBC batch size is read
+// at startup, so compare batching with one run per setting:
+//   mvn -Ploadtest test -Dtest=ImportLoadTest -Dspring.jpa.properties.hibernate.jdbc.batch_size=1
+@Tag("loadtest")
+@ExtendWith(LoadTestDatabase.class)
+@ActiveProfiles("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext
+class ImportLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportLoadTest.class);
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws Exception {
+        LoadTestDatabase.start(registry);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Thumbnails are rendered after the import commits; here they would only add background
+    // work and statements to the numbers
+    @MockBean
+    private ScreenThumbnailService screenThumbnailService;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    private int batchSize;
+
+    @Value("${loadtest.components-per-screen}")
+    private int componentsPerScreen;
+
+    @Value("${loadtest.import.screens}")
+    private int screens;
+
+    @Value("${loadtest.import.warmup-runs}")
+    private int warmupRuns;
+
+    @Value("${loadtest.import.runs}")
+    private int runs;
+
+    @Value("${loadtest.import.report}")
+    private String reportPath;
+
+    @Test
+    void importApplications() throws Exception {
+        LoadTestSeeder seeder = new LoadTestSeeder(jdbcTemplate, objectMapper);
+        seeder.seed(1, 0, 0, 0, passwordEncoder.encode(LoadTestSeeder.PASSWORD));
+        byte[] ndjson = ndjson(seeder);
+
+        LoadReport report = new LoadReport();
+        DesignerSession session = new DesignerSession("http://localhost:" + port, LoadTestSeeder.username(0),
+                report, objectMapper, 0, 0, 0, 0);
+        session.login();
+        for (int run = 0; run < warmupRuns; run++) {
+            session.importApplication("Warmup " + run, ndjson);
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long statementsBefore = statistics.getPrepareStatementCount();
+        report.start(System.nanoTime());
+        for (int run = 0; run < runs; run++) {
+            session.importApplication("Import " + run, ndjson);
+        }
+        report.stop(System.nanoTime());
+        long statementsPerImport = (statistics.getPrepareStatementCount() - statementsBefore) / runs;
+        report.counter("statementsPerImport", statementsPerImport);
+        report.counter("screensPerSecond", screens * runs / report.seconds());
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("jdbcBatchSize", batchSize);
+        settings.put("screensPerImport", screens);
+        settings.put("componentsPerScreen", componentsPerScreen);
+        settings.put("ndjsonBytes", ndjson.length);
+        settings.put("warmupRuns", warmupRuns);
+        settings.put("runs", runs);
+        report.writeJson(Path.of(reportPath), settings, objectMapper);
+        log.info("Import of {} screens, JDBC batch size {}: {} statements per import\n{}", screens, batchSize,
+                statementsPerImport, report.table());
+    }
+
+    // A header record, then one screen per line with the seeder's layouts
+    private byte[] ndjson(LoadTestSeeder seeder) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write("{\"type\":\"application\",\"name\":\"Imported\"}\n".getBytes(StandardCharsets.UTF_8));
+        for (int screen = 0; screen < screens; screen++) {
+            ObjectNode record = objectMapper.createObjectNode();
+            record.put("name", "Screen " + screen);
+            record.set("layout", objectMapper.readTree(seeder.layout(componentsPerScreen)));
+            out.write(record.toString().getBytes(StandardCharsets.UTF_8));
+            out.write('\n');
+        }
+        return out.toByteArray();
+    }
+}
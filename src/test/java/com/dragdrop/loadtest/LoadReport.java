@@ -0,0 +1,140 @@
+package com.dragdrop.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Latencies per endpoint, kept from start() (the end of the warmup) until stop()
+class LoadReport {
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private volatile long recordFrom = Long.MAX_VALUE;
+    private volatile long recordUntil;
+    // Whole-run figures besides latencies, e.g. statements per request
+    private final Map<String, Object> counters = new LinkedHashMap<>();
+
+    void start(long nanos) {
+        recordFrom = nanos;
+    }
+
+    void record(String endpoint, long startNanos, long endNanos, boolean ok) {
+        if (startNanos < recordFrom || recordUntil != 0) {
+            return;
+        }
+        endpoints.computeIfAbsent(endpoint, name -> new Endpoint()).add(endNanos - startNanos, ok);
+    }
+
+    void stop(long nanos) {
+        recordUntil = nanos;
+    }
+
+    void counter(String name, Object value) {
+        counters.put(name, value);
+    }
+
+    double seconds() {
+        return (recordUntil - recordFrom) / 1e9;
+    }
+
+    long requests() {
+        return endpoints.values().stream().mapToLong(endpoint -> endpoint.count).sum();
+    }
+
+    long errors() {
+        return endpoints.values().stream().mapToLong(endpoint -> endpoint.errors).sum();
+    }
+
+    // One row per endpoint plus a total; latencies in milliseconds
+    List<Map<String, Object>> rows() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        new TreeMap<>(endpoints).forEach((name, endpoint) -> rows.add(endpoint.row(name, seconds())));
+        Endpoint total = new Endpoint();
+        endpoints.values().forEach(total::addAll);
+        rows.add(total.row("total", seconds()));
+        return rows;
+    }
+
+    String table() {
+        StringBuilder out = new StringBuilder(String.format("%-46s %9s %7s %9s %9s %9s %9s %9s%n",
+                "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (Map<String, Object> row : rows()) {
+            out.append(String.format("%-46s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", row.get("endpoint"),
+                    row.get("requests"), row.get("errors"), row.get("throughputPerSecond"), row.get("p50Ms"),
+                    row.get("p95Ms"), row.get("p99Ms"), row.get("maxMs")));
+        }
+        return out.toString();
+    }
+
+    void writeJson(Path file, Map<String, Object> settings, ObjectMapper objectMapper) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("settings", settings);
+        report.put("measuredSeconds", seconds());
+        report.put("endpoints", rows());
+        if (!counters.isEmpty()) {
+            report.put("counters", counters);
+        }
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), report);
+    }
+
+    private static class Endpoint {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        synchronized void add(long nanos, boolean ok) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        synchronized void addAll(Endpoint other) {
+            synchronized (other) {
+                for (int i = 0; i < other.count; i++) {
+                    add(other.latencies[i], true);
+                }
+                errors += other.errors;
+            }
+        }
+
+        synchronized Map<String, Object> row(String name, double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", name);
+            row.put("requests", count);
+            row.put("errors", errors);
+            row.put("throughputPerSecond", seconds > 0 ? count / seconds : 0.0);
+            row.put("p50Ms", percentile(sorted, 0.50));
+            row.put("p95Ms", percentile(sorted, 0.95));
+            row.put("p99Ms", percentile(sorted, 0.99));
+            row.put("maxMs", percentile(sorted, 1.0));
+            return row;
+        }
+
+        // nearest rank
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int rank = (int) Math.ceil(p * sorted.length);
+            return sorted[Math.max(rank, 1) - 1] / 1e6;
+        }
+    }
+}
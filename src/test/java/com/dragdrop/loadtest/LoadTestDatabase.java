@@ -0,0 +1,40 @@
+package com.dragdrop.loadtest;
+
+import java.io.IOException;
+import java.sql.Connection;
+
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+// A throwaway PostgreSQL for one load-test class, created from the real schema script so indexes,
+// jsonb and sequence settings match production. Call start() from a @DynamicPropertySource and
+// register this extension ahead of SpringExtension so its afterAll runs last: the application
+// context, with its thumbnail workers and connection pool, is closed before the database stops
+class LoadTestDatabase implements AfterAllCallback {
+
+    private static EmbeddedPostgres postgres;
+
+    static void start(DynamicPropertyRegistry registry) throws Exception {
+        postgres = EmbeddedPostgres.start();
+        try (Connection connection = postgres.getPostgresDatabase().getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new FileSystemResource("database_schema.sql"));
+        }
+        EmbeddedPostgres database = postgres;
+        registry.add("spring.datasource.url", () -> database.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) throws IOException {
+        if (postgres != null) {
+            postgres.close();
+            postgres = null;
+        }
+    }
+}
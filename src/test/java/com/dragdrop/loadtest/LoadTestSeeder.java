@@ -0,0 +1,99 @@
+package com.dragdrop.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+// Inserts users, applications and screens with synthetic layouts straight through JDBC.
+// Seeded, so every run starts from the same data
+class LoadTestSeeder {
+
+    static final String PASSWORD = "loadtest";
+
+    private static final String[] TYPES = {"button", "textbox", "textarea", "checkbox", "radio", "image"};
+    private static final String[] TEXTS = {"Submit", "Cancel", "Name", "Email address", "Remember me", "Photo"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Random random = new Random(42);
+
+    LoadTestSeeder(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    static String username(int user) {
+        return "loadtest-" + user;
+    }
+
+    void seed(int users, int applicationsPerUser, int screensPerApplication, int components, String passwordHash) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> userRows = new ArrayList<>();
+        for (int user = 0; user < users; user++) {
+            userRows.add(new Object[] {username(user), username(user) + "@example.com", passwordHash});
+        }
+        jdbcTemplate.batchUpdate("insert into users (username, email, password) values (?, ?, ?)", userRows);
+
+        List<Object[]> applicationRows = new ArrayList<>();
+        for (Long userId : jdbcTemplate.queryForList(
+                "select id from users where username like 'loadtest-%' order by id", Long.class)) {
+            for (int app = 0; app < applicationsPerUser; app++) {
+                applicationRows.add(new Object[] {"Load test app " + app, userId, now, now});
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into application (name, user_id, created_at, updated_at, version) "
+                + "values (?, ?, ?, ?, 0)", applicationRows);
+
+        List<Object[]> screenRows = new ArrayList<>();
+        for (Long applicationId : jdbcTemplate.queryForList(
+                "select a.id from application a join users u on u.id = a.user_id "
+                        + "where u.username like 'loadtest-%' order by a.id", Long.class)) {
+            for (int screen = 0; screen < screensPerApplication; screen++) {
+                String layout = layout(components);
+                screenRows.add(new Object[] {applicationId, "Screen " + screen, layout,
+                        layout.getBytes(StandardCharsets.UTF_8).length, now});
+            }
+            if (screenRows.size() >= 500) {
+                insertScreens(screenRows);
+            }
+        }
+        insertScreens(screenRows);
+    }
+
+    private void insertScreens(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("insert into screen (application_id, name, layout_json, layout_size, created_at, version) "
+                + "values (?, ?, cast(? as jsonb), ?, ?, 0)", rows);
+        rows.clear();
+    }
+
+    // Shaped like the designer's output
+    String layout(int components) {
+        ObjectNode layout = objectMapper.createObjectNode();
+        ArrayNode list = layout.putArray("components");
+        for (int i = 0; i < components; i++) {
+            ObjectNode component = list.addObject();
+            component.put("id", "comp_" + (1700000000000L + i) + "_" + Integer.toHexString(random.nextInt()));
+            component.put("type", TYPES[random.nextInt(TYPES.length)]);
+            component.put("x", random.nextInt(300));
+            component.put("y", random.nextInt(560));
+            component.put("width", 40 + random.nextInt(260));
+            component.put("height", 20 + random.nextInt(100));
+            component.put("text", TEXTS[random.nextInt(TEXTS.length)]);
+            component.put("placeholder", "Enter text...");
+            component.put("textColor", "#000000");
+            component.put("checked", random.nextBoolean());
+            component.put("zIndex", i);
+        }
+        layout.put("backgroundColor", "#ffffff");
+        return layout.toString();
+    }
+}
@@ -0,0 +1,28 @@
+package com.dragdrop.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class CopyNamesTest {
+
+    @Test
+    void firstCopyGetsPlainSuffix() {
+        assertEquals("Login (copy)", CopyNames.next("Login", Set.of("login")));
+    }
+
+    @Test
+    void skipsTakenCopiesCaseInsensitively() {
+        assertEquals("Login (copy 3)", CopyNames.next("Login", List.of("login", "login (copy)", "login (copy 2)")));
+    }
+
+    @Test
+    void copyOfACopyCountsFromTheOriginal() {
+        assertEquals("Login (copy 2)", CopyNames.next("Login (copy)", Set.of("login", "login (copy)")));
+        assertEquals("Login", CopyNames.base("Login (copy 12)"));
+        assertEquals("Login (draft)", CopyNames.base("Login (draft)"));
+    }
+}
@@ -0,0 +1,72 @@
+package com.dragdrop.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class JsonPatchTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private JsonNode json(String text) throws Exception {
+        return mapper.readTree(text.replace('\'', '"'));
+    }
+
+    private JsonNode apply(String document, String patch) throws Exception {
+        return JsonPatch.apply(json(document), json(patch));
+    }
+
+    @Test
+    void replacesAndAddsInsideComponents() throws Exception {
+        JsonNode result = apply(
+                "{'components':[{'id':'a','x':1},{'id':'b','x':2}],'backgroundColor':'#fff'}",
+                "[{'op':'replace','path':'/components/1/x','value':5},"
+                        + "{'op':'add','path':'/components/-','value':{'id':'c'}},"
+                        + "{'op':'add','path':'/components/0','value':{'id':'z'}},"
+                        + "{'op':'remove','path':'/backgroundColor'}]");
+
+        assertEquals(json("{'components':[{'id':'z'},{'id':'a','x':1},{'id':'b','x':5},{'id':'c'}]}"), result);
+    }
+
+    @Test
+    void movesCopiesAndTests() throws Exception {
+        JsonNode result = apply(
+                "{'a':{'b':1},'list':[1,2,3]}",
+                "[{'op':'test','path':'/a/b','value':1},"
+                        + "{'op':'copy','from':'/a','path':'/c'},"
+                        + "{'op':'move','from':'/list/0','path':'/list/-'}]");
+
+        assertEquals(json("{'a':{'b':1},'c':{'b':1},'list':[2,3,1]}"), result);
+    }
+
+    @Test
+    void replacesWholeDocument() throws Exception {
+        JsonNode result = apply("[]", "[{'op':'replace','path':'','value':{'components':[]}}]");
+
+        assertEquals(json("{'components':[]}"), result);
+    }
+
+    @Test
+    void testComparesNumbersByValue() throws Exception {
+        JsonNode document = json("{'x':1,'c':{'w':2.50,'list':[10]}}");
+        JsonPatch.apply(document, json("[{'op':'test','path':'/x','value':1.0},"
+                + "{'op':'test','path':'/c','value':{'w':2.5,'list':[1E1]}}]"));
+        assertThrows(RuntimeException.class, () -> JsonPatch.apply(document,
+                json("[{'op':'test','path':'/x','value':'1'}]")));
+    }
+
+    @Test
+    void rejectsInvalidOperations() {
+        assertThrows(RuntimeException.class, () -> apply("{'a':1}", "[{'op':'test','path':'/a','value':2}]"));
+        assertThrows(RuntimeException.class, () -> apply("{'a':1}", "[{'op':'remove','path':'/b'}]"));
+        assertThrows(RuntimeException.class, () -> apply("{'l':[1]}", "[{'op':'replace','path':'/l/1','value':0}]"));
+        assertThrows(RuntimeException.class, () -> apply("{'l':[1]}", "[{'op':'add','path':'/l/01','value':0}]"));
+        assertThrows(RuntimeException.class, () -> apply("{'a':{}}", "[{'op':'move','from':'/a','path':'/a/b'}]"));
+        assertThrows(RuntimeException.class, () -> apply("{}", "[{'op':'frobnicate','path':'/a'}]"));
+        assertThrows(RuntimeException.class, () -> apply("{}", "{'op':'add','path':'/a','value':1}"));
+    }
+}
@@ -0,0 +1,63 @@
+package com.dragdrop.service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class LayoutValidatorTest {
+
+    private final LayoutValidator validator = new LayoutValidator();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(validator, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(validator, "maxBytes", 200);
+        ReflectionTestUtils.setField(validator, "maxComponents", 2);
+        ReflectionTestUtils.setField(validator, "maxStringLength", 20);
+        ReflectionTestUtils.setField(validator, "maxInlineImageLength", 1000);
+        ReflectionTestUtils.setField(validator, "maxInlineBytes", 1500L);
+        ReflectionTestUtils.setField(validator, "maxDepth", 4);
+    }
+
+    private String reject(String layout) {
+        return assertThrows(RuntimeException.class, () -> validator.validate(layout.replace('\'', '"'))).getMessage();
+    }
+
+    @Test
+    void acceptsDesignerLayoutsAndBareArrays() {
+        assertDoesNotThrow(() -> validator.validate(
+                "{\"components\":[{\"id\":\"a\",\"type\":\"button\",\"x\":1,\"y\":2,\"checked\":false}],\"backgroundColor\":null}"));
+        assertDoesNotThrow(() -> validator.validate("[{\"type\":\"image\",\"imagePath\":\"data:image/png;base64,"
+                + "A".repeat(400) + "\"}]"));
+    }
+
+    @Test
+    void rejectsWrongTypesWithPosition() {
+        assertDoesNotThrow(() -> validator.validate("[{\"x\":\"10\",\"y\":\"\"}]"));
+        String message = reject("{'components':[{'type':'button','x':'ten'}]}");
+        assertTrue(message.contains("'x' must be a number"), message);
+        assertTrue(message.contains("line 1, column"), message);
+        assertTrue(reject("{'components':{}}").contains("'components' must be an array"));
+        assertTrue(reject("'text'").contains("object or array"));
+        assertTrue(reject("{} {}").contains("unexpected content"));
+        assertTrue(reject("{'components':[").startsWith("Invalid layout JSON"));
+    }
+
+    @Test
+    void enforcesBudgets() {
+        assertTrue(reject("[{},{},{}]").contains("more than 2 components"));
+        assertTrue(reject("{'title':'" + "x".repeat(21) + "'}").contains("longer than 20 characters"));
+        assertTrue(reject("{'src':'data:text/plain," + "x".repeat(400) + "'}").contains("longer than 20 characters"));
+        String image = "'data:image/png;base64," + "A".repeat(600) + "'";
+        assertDoesNotThrow(() -> validator.validate(("[{'imagePath':" + image + "},{'imagePath':" + image + "}]").replace('\'', '"')));
+        assertTrue(reject("{'a':" + image + ",'b':" + image + ",'c':" + image + "}").contains("inline images total more than 1500"));
+        assertTrue(reject("{'a':{'b':{'c':{'d':{}}}}}").contains("nested more than 4 levels"));
+        assertTrue(reject("{'a':'" + "x".repeat(15) + "','b':[" + "1,".repeat(100) + "1]}").contains("larger than 200 bytes"));
+    }
+}